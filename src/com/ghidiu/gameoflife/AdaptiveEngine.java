@@ -0,0 +1,187 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * An engine which delegates to a dense or a sparse engine, migrating the board between them as its density and
+ * activity change. A soup which collapses to a few gliders moves to the sparse engine and stops paying for the full
+ * area; a board which fills up again moves back to the dense engine.
+ *
+ * Density is the population over the area; activity is the sum of the changes in tile population over the area,
+ * which is a lower bound on the fraction of cells which changed. Both are read from the tile index, so monitoring
+ * costs one pass over the tiles per day. Density is also checked as life is added, so a densely seeded soup moves to
+ * the dense engine before its first day rather than running it on the hash table.
+ *
+ * @author jghidiu
+ */
+final class AdaptiveEngine implements GameOfLifeEngine {
+
+    // Move to the sparse engine when both density and activity are below this
+    final static double SPARSE_THRESHOLD = 1.0 / 256;
+
+    // Move to the dense engine when either density or activity is above this
+    final static double DENSE_THRESHOLD = 1.0 / 64;
+
+    // The number of days to stay on an engine after migrating, to avoid flapping
+    final static int MINIMUM_DAYS = 8;
+
+    // The dimensions of the board
+    private final int rows;
+    private final int columns;
+
+    // The engine currently holding the board
+    private GameOfLifeEngine engine;
+
+    // The tile populations before the current day
+    private int[] previousTiles;
+
+    // The number of days since the last migration
+    private int days;
+
+    // The activity of the last day
+    private double activity;
+
+
+    /**
+     * Creates an engine with no life. Empty boards start on the sparse engine, until life is added.
+     *
+     * @param rows the number of rows to use
+     * @param columns the number of columns to use
+     */
+    AdaptiveEngine(final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.engine = new SparseEngine(rows, columns);
+
+        // The seeded board may migrate after the first day
+        this.days = MINIMUM_DAYS;
+    }
+
+    @Override
+    public final String getName() {
+        return GameOfLifeEngines.ADAPTIVE;
+    }
+
+    /**
+     * Gets the engine which currently holds the board.
+     *
+     * @return the current engine
+     */
+    final GameOfLifeEngine getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * Gets the activity of the last day.
+     *
+     * @return the activity, as a fraction of the area
+     */
+    final double getActivity() {
+        return this.activity;
+    }
+
+    @Override
+    public final int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public final int getColumns() {
+        return this.columns;
+    }
+
+    @Override
+    public final boolean getLife(final int row, final int column) {
+        return this.engine.getLife(row, column);
+    }
+
+    @Override
+    public final boolean setLife(final int row, final int column, final boolean alive) {
+        if (!this.engine.setLife(row, column, alive)) {
+            return false;
+        }
+
+        // Seeding a dense board moves it to the dense engine before it is stepped
+        if (alive && this.days >= MINIMUM_DAYS && this.engine instanceof SparseEngine
+                && this.engine.population() > DENSE_THRESHOLD * this.rows * this.columns) {
+            migrate(new DenseEngine(this.rows, this.columns));
+        }
+        return true;
+    }
+
+    @Override
+    public final void step(final GameOfLifeTileIndex index) {
+        // Measure activity against the tile populations before the day (life may have been added since)
+        final int tileRows = index.getTileRows();
+        final int tileColumns = index.getTileColumns();
+        if (null == this.previousTiles) {
+            this.previousTiles = new int[tileRows * tileColumns];
+        }
+        snapshotTiles(index);
+
+        this.engine.step(index);
+        this.days++;
+
+        long changes = 0;
+        for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+            for (int tileColumn = 0; tileColumn < tileColumns; tileColumn++) {
+                changes += Math.abs(index.getTilePopulation(tileRow, tileColumn) - this.previousTiles[tileRow * tileColumns + tileColumn]);
+            }
+        }
+
+        final double area = Math.max(1.0, (double) this.rows * this.columns);
+        final double density = this.engine.population() / area;
+        this.activity = changes / area;
+
+        // Decide whether to migrate
+        if (this.days < MINIMUM_DAYS) {
+            return;
+        }
+        if (this.engine instanceof SparseEngine && (density > DENSE_THRESHOLD || this.activity > DENSE_THRESHOLD)) {
+            migrate(new DenseEngine(this.rows, this.columns));
+        } else if (this.engine instanceof DenseEngine && density < SPARSE_THRESHOLD && this.activity < SPARSE_THRESHOLD) {
+            migrate(new SparseEngine(this.rows, this.columns));
+        }
+    }
+
+    /**
+     * Copies the tile populations of an index.
+     */
+    private void snapshotTiles(final GameOfLifeTileIndex index) {
+        for (int tileRow = 0; tileRow < index.getTileRows(); tileRow++) {
+            for (int tileColumn = 0; tileColumn < index.getTileColumns(); tileColumn++) {
+                this.previousTiles[tileRow * index.getTileColumns() + tileColumn] = index.getTilePopulation(tileRow, tileColumn);
+            }
+        }
+    }
+
+    /**
+     * Moves the board to another engine.
+     *
+     * @param target the engine to move to
+     */
+    private void migrate(final GameOfLifeEngine target) {
+        this.engine.forEachLife((row, column) -> target.setLife(row, column, true));
+        this.engine = target;
+        this.days = 0;
+    }
+
+    @Override
+    public final long population() {
+        return this.engine.population();
+    }
+
+    @Override
+    public final void forEachLife(final LifeVisitor visitor) {
+        this.engine.forEachLife(visitor);
+    }
+
+    @Override
+    public final GameOfLifeView snapshot() {
+        return this.engine.snapshot();
+    }
+
+    @Override
+    public final String render() {
+        return this.engine.render();
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * An engine which keeps the board packed 64 cells to a word (see {@link GameOfLifeMapUtil#pack(boolean[][])}) and
+ * steps a whole word of cells at a time with bitwise adders. The cost of a day is proportional to the area of the
+ * board.
+ *
+ * @author jghidiu
+ */
+final class DenseEngine extends PackedEngine {
+
+    /**
+     * Creates an engine with no life.
+     *
+     * @param rows the number of rows to use
+     * @param columns the number of columns to use
+     */
+    DenseEngine(final int rows, final int columns) {
+        super(rows, columns);
+    }
+
+    @Override
+    public final String getName() {
+        return GameOfLifeEngines.DENSE;
+    }
+
+    @Override
+    protected final void stepBand(final long[] yesterday, final long[] today, final int firstRow) {
+        for (int row = firstRow; row < Math.min(this.rows, firstRow + 2); row++) {
+            final int above = (row - 1) * this.wordsPerRow;
+            final int current = row * this.wordsPerRow;
+            final int below = (row + 1) * this.wordsPerRow;
+
+            for (int word = 0; word < this.wordsPerRow; word++) {
+                today[current + word] = nextWord(yesterday,
+                        row > 0 ? above : -1,
+                        current,
+                        row < this.rows - 1 ? below : -1,
+                        word) & (word == this.wordsPerRow - 1 ? this.lastWordMask : -1L);
+            }
+        }
+    }
+
+    /**
+     * Computes the next day for one word of a row.
+     *
+     * @param board the packed board
+     * @param above the offset of the row above, or -1 if there is none
+     * @param current the offset of the row
+     * @param below the offset of the row below, or -1 if there is none
+     * @param word the index of the word within the row
+     * @return the next day for the word
+     */
+    private long nextWord(final long[] board, final int above, final int current, final int below, final int word) {
+        final boolean hasWest = word > 0;
+        final boolean hasEast = word < this.wordsPerRow - 1;
+
+        return GameOfLifeMapUtil.runDay(
+                -1 != above && hasWest ? board[above + word - 1] : 0,
+                -1 != above ? board[above + word] : 0,
+                -1 != above && hasEast ? board[above + word + 1] : 0,
+                hasWest ? board[current + word - 1] : 0,
+                board[current + word],
+                hasEast ? board[current + word + 1] : 0,
+                -1 != below && hasWest ? board[below + word - 1] : 0,
+                -1 != below ? board[below + word] : 0,
+                -1 != below && hasEast ? board[below + word + 1] : 0);
+    }
+
+}
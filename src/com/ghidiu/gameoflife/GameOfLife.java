@@ -1,34 +1,190 @@
 package com.ghidiu.gameoflife;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Encapsulates the "game of life", providing an abstraction of the game board and methods allowed.
  *
+ * The game is safe to use from many threads. Days are run one at a time, and each completed day is published as an
+ * immutable {@link GameOfLifeGeneration}; the read methods only read the latest published generation, without locking
+ * or publishing anything, so readers never wait for (or slow down) a day which is being run.
+ *
+ * Added life is applied between generations in batches, because each publication makes the next change copy the
+ * board. It is applied straight away if no day is being run (and queued otherwise), but only published with the next
+ * day, by {@link #addLife(int[])}, or when the thread which added it next reads. A thread therefore always sees its
+ * own life, and other threads see it once it is published; that read may wait for a day which is being run.
+ *
  * @author jghidiu
  */
 public final class GameOfLife {
 
-    // The life map
-    private boolean[][] lifeMap;
+    // The dimensions of the board
+    private final int rows;
+    private final int columns;
+
+    // The engine which holds and steps the board (guarded by the lock)
+    private final GameOfLifeEngine engine;
+
+    // The living cell count of each tile of the board (guarded by the lock)
+    private final GameOfLifeTileIndex tileIndex;
+
+    // Held while the board is changed, so that days and added life are applied one at a time
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Life which has been added but not yet applied, as (row << 32 | column)
+    private final Queue<Long> pendingLife = new ConcurrentLinkedQueue<>();
+
+    // Set for each thread which has added life it has not seen published, and the number of such threads, so that
+    // other readers can skip the lookup
+    private final ThreadLocal<Boolean> ownLife = new ThreadLocal<>();
+    private final AtomicInteger ownLifeThreads = new AtomicInteger();
+
+    // Whether the board has changed since the generation was published (guarded by the lock)
+    private boolean unpublished;
+
+    // The latest published generation
+    private volatile GameOfLifeGeneration generation;
+
+    // The number of days which have been run (guarded by the lock)
+    private long day;
+
+    // The history which each generation is recorded to (may be null; guarded by the lock)
+    private GameOfLifeHistory history;
 
 
     /**
-     * Creates an instance of the game.
+     * Creates an instance of the game, using the default engine.
      *
      * @param rows the number of rows to use
      * @param columns the number of columns to use
      */
     public GameOfLife(final int rows, final int columns) {
-        this.lifeMap = GameOfLifeMapUtil.createMap(rows, columns, false);
+        this(rows, columns, GameOfLifeEngines.DEFAULT);
+    }
+
+    /**
+     * Creates an instance of the game.
+     *
+     * @param rows the number of rows to use
+     * @param columns the number of columns to use
+     * @param engineName the name of the engine to use (see {@link GameOfLifeEngines})
+     */
+    public GameOfLife(final int rows, final int columns, final String engineName) {
+        this(rows, columns, engineName, GameOfLifeRule.CONWAY);
+    }
+
+    /**
+     * Creates an instance of a life-like game. Only the lookup engine supports rules other than that of the "game of
+     * life".
+     *
+     * @param rows the number of rows to use
+     * @param columns the number of columns to use
+     * @param engineName the name of the engine to use (see {@link GameOfLifeEngines})
+     * @param rule the rule to follow
+     */
+    public GameOfLife(final int rows, final int columns, final String engineName, final GameOfLifeRule rule) {
+        this.rows = rows;
+        this.columns = columns;
+        this.engine = GameOfLifeEngines.create(engineName, rows, columns, rule);
+        this.tileIndex = new GameOfLifeTileIndex(rows, columns);
+        this.generation = new GameOfLifeGeneration(0, this.engine.snapshot(), this.tileIndex.snapshot());
+    }
+
+    /**
+     * Gets the name of the engine in use.
+     *
+     * @return the engine name
+     */
+    public final String getEngineName() {
+        return this.engine.getName();
     }
 
     /**
-     * Adds life to the board in a specified location.
+     * Gets the number of days which have been run.
+     *
+     * @return the current day
+     */
+    public final long getDay() {
+        return getGeneration().getDay();
+    }
+
+    /**
+     * Adds life to the board in a specified location. The life is published with the next day, or when this thread
+     * next reads.
      *
      * @param row the row coordinate to add life to
      * @param column the column coordinate to add life to
      */
     public final void addLife(final int row, final int column) {
-        GameOfLifeMapUtil.setLife(row, column, true, this.lifeMap);
+        checkLife(row, column);
+
+        // Apply it now, unless a day is being run
+        if (this.lock.tryLock()) {
+            try {
+                applyPendingLife();
+                applyLife(row, column);
+                this.unpublished = true;
+            } finally {
+                this.lock.unlock();
+            }
+        } else {
+            this.pendingLife.add(((long) row << 32) | column);
+        }
+        markOwnLife();
+    }
+
+    /**
+     * Adds life to the board in many locations, and publishes it once. If a day is being run, the life is published
+     * with the next day, or when this thread next reads.
+     *
+     * @param cells the locations to add life to, as row and column pairs
+     */
+    public final void addLife(final int[] cells) {
+        if (0 != cells.length % 2) {
+            throw new IllegalArgumentException("cells must be row and column pairs");
+        }
+        // Checked first, so that either all of the life is added or none of it is
+        for (int i = 0; i < cells.length; i += 2) {
+            checkLife(cells[i], cells[i + 1]);
+        }
+        for (int i = 0; i < cells.length; i += 2) {
+            this.pendingLife.add(((long) cells[i] << 32) | cells[i + 1]);
+        }
+
+        if (this.lock.tryLock()) {
+            try {
+                publish();
+            } finally {
+                this.lock.unlock();
+            }
+        } else {
+            markOwnLife();
+        }
+    }
+
+    /**
+     * Gets the latest generation, which includes any life added by this thread. Use this to make several queries of
+     * the same day.
+     *
+     * @return the latest generation
+     */
+    public final GameOfLifeGeneration getGeneration() {
+        if (0 != this.ownLifeThreads.get() && null != this.ownLife.get()) {
+            // Publish the life this thread added
+            clearOwnLife();
+            this.lock.lock();
+            try {
+                if (this.unpublished || !this.pendingLife.isEmpty()) {
+                    publish();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+        return this.generation;
     }
 
     /**
@@ -37,14 +193,101 @@ public final class GameOfLife {
      * @return true, if life exists; false otherwise
      */
     public final boolean hasLife() {
-        return GameOfLifeMapUtil.hasLife(this.lifeMap);
+        return getGeneration().hasLife();
+    }
+
+    /**
+     * Counts the living cells in the game.
+     *
+     * @return the number of living cells
+     */
+    public final long population() {
+        return getGeneration().population();
+    }
+
+    /**
+     * Counts the living cells in a region of the game. This costs one lookup per fully covered tile, plus a visit to
+     * the covered cells of partially covered tiles which have life.
+     *
+     * @param region the region to count; parts outside of the board are ignored
+     * @return the number of living cells in the region
+     */
+    public final long population(final GameOfLifeRegion region) {
+        return getGeneration().population(region);
+    }
+
+    /**
+     * Finds the smallest region which contains every living cell.
+     *
+     * @return the bounding box of life, or null if there is no life
+     */
+    public final GameOfLifeRegion boundingBox() {
+        return getGeneration().boundingBox();
     }
 
     /**
-     * Runs a day simulation.
+     * Gets a read-only view of a region of the current day, without copying it. The view keeps showing the day it
+     * was taken on after life is added or later days are run.
+     *
+     * @param region the region to view; parts outside of the board are ignored
+     * @return a view of the region
+     */
+    public final GameOfLifeView viewport(final GameOfLifeRegion region) {
+        return getGeneration().viewport(region);
+    }
+
+    /**
+     * Gets an immutable view of the whole current day. This is cheap (the engine shares its state until it next
+     * changes), so it is suitable for handing to other threads, such as a {@link GameOfLifeFrameRecorder}.
+     *
+     * @return a snapshot of the current day
+     */
+    public final GameOfLifeView snapshot() {
+        return getGeneration().getBoard();
+    }
+
+    /**
+     * Runs a day simulation, then publishes it.
      */
     public final void runDay() {
-        this.lifeMap = GameOfLifeMapUtil.runDay(this.lifeMap);
+        // The day publishes any life this thread added
+        if (0 != this.ownLifeThreads.get() && null != this.ownLife.get()) {
+            clearOwnLife();
+        }
+
+        this.lock.lock();
+        try {
+            applyPendingLife();
+            this.engine.step(this.tileIndex);
+            this.day++;
+            publish();
+
+            if (null != this.history) {
+                this.history.record(this.generation.getBoard());
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Records the current generation, and every generation after it, to a history. Life added after this call is
+     * only seen by the history once the next day has been run.
+     *
+     * @param history the history to record to, or null to stop recording
+     */
+    public final void setHistory(final GameOfLifeHistory history) {
+        this.lock.lock();
+        try {
+            // Only kept once the current generation is recorded, so that a history which rejects it is not kept
+            if (null != history) {
+                publish();
+                history.record(this.generation.getBoard());
+            }
+            this.history = history;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
@@ -53,7 +296,58 @@ public final class GameOfLife {
      * @return a formatted representation of the game.
      */
     public final String toString() {
-        return GameOfLifeMapUtil.toString(this.lifeMap);
+        return getGeneration().toString();
+    }
+
+    /**
+     * Notes that this thread has added life which it has not seen published.
+     */
+    private void markOwnLife() {
+        if (null == this.ownLife.get()) {
+            this.ownLife.set(Boolean.TRUE);
+            this.ownLifeThreads.incrementAndGet();
+        }
+    }
+
+    /**
+     * Notes that the life this thread added is being published.
+     */
+    private void clearOwnLife() {
+        this.ownLife.remove();
+        this.ownLifeThreads.decrementAndGet();
+    }
+
+    /**
+     * Applies the queued life to the board. Must hold the lock.
+     */
+    private void applyPendingLife() {
+        for (Long cell = this.pendingLife.poll(); null != cell; cell = this.pendingLife.poll()) {
+            applyLife((int) (cell >>> 32), (int) (long) cell);
+        }
+    }
+
+    /**
+     * Applies life to the board. Must hold the lock.
+     */
+    private void applyLife(final int row, final int column) {
+        if (this.engine.setLife(row, column, true)) {
+            this.tileIndex.add(row, column);
+        }
+    }
+
+    private void checkLife(final int row, final int column) {
+        if (row < 0 || row >= this.rows || column < 0 || column >= this.columns) {
+            throw new IndexOutOfBoundsException("(" + row + ", " + column + ") is off the board");
+        }
+    }
+
+    /**
+     * Applies the queued life, and publishes the board as the latest generation. Must hold the lock.
+     */
+    private void publish() {
+        applyPendingLife();
+        this.unpublished = false;
+        this.generation = new GameOfLifeGeneration(this.day, this.engine.snapshot(), this.tileIndex.snapshot());
     }
 
 }
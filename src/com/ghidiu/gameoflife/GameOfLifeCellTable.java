@@ -0,0 +1,212 @@
+package com.ghidiu.gameoflife;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash table from cell keys to small non-zero values; a key which is not in the table has the
+ * value 0. Used as a set of living cells and as a neighbor counter without boxing.
+ *
+ * @author jghidiu
+ */
+final class GameOfLifeCellTable {
+
+    // Marks an empty slot (cell keys are never negative)
+    private final static long EMPTY = -1L;
+
+    // The largest number of slots
+    final static int MAXIMUM_CAPACITY = 1 << 30;
+
+    // The slots
+    private long[] keys;
+    private byte[] values;
+
+    // The number of keys in the table
+    private int size;
+
+
+    /**
+     * Creates an empty table.
+     *
+     * @param expectedSize the number of keys to size the table for
+     */
+    GameOfLifeCellTable(final long expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Gets the number of slots to allocate for a number of keys: between two and four slots per key, up to the
+     * maximum capacity.
+     *
+     * @param expectedSize the number of keys
+     * @return the number of slots
+     */
+    static int capacityFor(final long expectedSize) {
+        if (expectedSize >= MAXIMUM_CAPACITY >>> 2) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Integer.highestOneBit((int) Math.max(8, expectedSize)) << 2;
+    }
+
+    /**
+     * Creates a copy of a table.
+     *
+     * @param table the table to copy
+     */
+    GameOfLifeCellTable(final GameOfLifeCellTable table) {
+        this.keys = table.keys.clone();
+        this.values = table.values.clone();
+        this.size = table.size;
+    }
+
+    /**
+     * Gets the number of keys in the table.
+     *
+     * @return the number of keys
+     */
+    final int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the number of slots; keys are found with {@link #getKey(int)} for slots 0 to capacity - 1.
+     *
+     * @return the number of slots
+     */
+    final int capacity() {
+        return this.keys.length;
+    }
+
+    /**
+     * Gets the key in a slot.
+     *
+     * @param slot the slot
+     * @return the key, or -1 if the slot is empty
+     */
+    final long getKey(final int slot) {
+        return this.keys[slot];
+    }
+
+    /**
+     * Gets the value in a slot.
+     *
+     * @param slot the slot
+     * @return the value, or 0 if the slot is empty
+     */
+    final int getValue(final int slot) {
+        return this.values[slot];
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key
+     * @return the value, or 0 if the key is not in the table
+     */
+    final int get(final long key) {
+        final int mask = this.keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (EMPTY == this.keys[slot]) {
+                return 0;
+            }
+            if (key == this.keys[slot]) {
+                return this.values[slot];
+            }
+        }
+    }
+
+    /**
+     * Adds to the value of a key, inserting the key if needed.
+     *
+     * @param key the key
+     * @param amount the amount to add; the resulting value must fit in a byte and must not be 0
+     * @return the previous value of the key
+     * @throws IllegalStateException if the key is new and the table is full
+     */
+    final int add(final long key, final int amount) {
+        final int mask = this.keys.length - 1;
+        int slot = hash(key) & mask;
+        while (EMPTY != this.keys[slot]) {
+            if (key == this.keys[slot]) {
+                final int previous = this.values[slot];
+                this.values[slot] = (byte) (previous + amount);
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // Probing needs an empty slot to stop at, so a table at the maximum capacity fills to all but one slot
+        if (this.size + 1 >= this.keys.length) {
+            throw new IllegalStateException("cell table is full: " + this.size + " keys");
+        }
+        this.keys[slot] = key;
+        this.values[slot] = (byte) amount;
+        if (++this.size * 2L > this.keys.length && this.keys.length < MAXIMUM_CAPACITY) {
+            rehash(this.keys.length * 2);
+        }
+        return 0;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return the previous value of the key
+     */
+    final int remove(final long key) {
+        final int mask = this.keys.length - 1;
+        int slot = hash(key) & mask;
+        while (key != this.keys[slot]) {
+            if (EMPTY == this.keys[slot]) {
+                return 0;
+            }
+            slot = (slot + 1) & mask;
+        }
+        final int previous = this.values[slot];
+
+        // Shift later keys of the probe sequence back into the gap
+        int gap = slot;
+        for (int next = (gap + 1) & mask; EMPTY != this.keys[next]; next = (next + 1) & mask) {
+            final int home = hash(this.keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                this.keys[gap] = this.keys[next];
+                this.values[gap] = this.values[next];
+                gap = next;
+            }
+        }
+        this.keys[gap] = EMPTY;
+        this.values[gap] = 0;
+        this.size--;
+
+        return previous;
+    }
+
+    private void allocate(final int capacity) {
+        this.keys = new long[capacity];
+        this.values = new byte[capacity];
+        Arrays.fill(this.keys, EMPTY);
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = this.keys;
+        final byte[] oldValues = this.values;
+        allocate(capacity);
+
+        final int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (EMPTY != oldKeys[i]) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (EMPTY != this.keys[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(final long key) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+}
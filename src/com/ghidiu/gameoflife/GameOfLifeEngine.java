@@ -0,0 +1,80 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * A simulation backend for the "game of life". Engines own the state of a board and know how to step it; see
+ * {@link GameOfLifeEngines} for the engines which can be selected by name.
+ *
+ * @author jghidiu
+ */
+public interface GameOfLifeEngine extends GameOfLifeView {
+
+    /**
+     * Visits living cells.
+     */
+    interface LifeVisitor {
+
+        /**
+         * Visits a living cell.
+         *
+         * @param row the row coordinate of the cell
+         * @param column the column coordinate of the cell
+         */
+        void visit(int row, int column);
+
+    }
+
+
+    /**
+     * Gets the name which selects this engine.
+     *
+     * @return the name of the engine
+     */
+    String getName();
+
+    /**
+     * Sets the aliveness of a cell.
+     *
+     * @param row the row coordinate of the cell to set life status
+     * @param column the column coordinate of the cell to set life status
+     * @param alive the aliveness of the cell
+     * @return true if the aliveness of the cell changed; false otherwise
+     */
+    boolean setLife(int row, int column, boolean alive);
+
+    /**
+     * Runs a day simulation (see {@link GameOfLifeMapUtil#runDay(boolean[][])}), counting the living cells of the
+     * resulting board into a tile index as they are decided.
+     *
+     * @param index the index to reset and count into
+     */
+    void step(GameOfLifeTileIndex index);
+
+    /**
+     * Counts the living cells.
+     *
+     * @return the number of living cells
+     */
+    long population();
+
+    /**
+     * Visits every living cell. The order is up to the engine.
+     *
+     * @param visitor the visitor to call for each living cell
+     */
+    void forEachLife(LifeVisitor visitor);
+
+    /**
+     * Gets an immutable view of the current board. Later changes to the engine are not reflected in the view.
+     *
+     * @return a snapshot of the board
+     */
+    GameOfLifeView snapshot();
+
+    /**
+     * Returns a formatted representation of the board (see {@link GameOfLifeMapUtil#toString(boolean[][])}).
+     *
+     * @return a formatted representation of the board
+     */
+    String render();
+
+}
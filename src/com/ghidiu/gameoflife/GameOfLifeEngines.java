@@ -0,0 +1,79 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * Creates engines by name.
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeEngines {
+
+    // The engine names
+    public final static String MAP = "map";
+    public final static String DENSE = "dense";
+    public final static String SPARSE = "sparse";
+    public final static String TILED = "tiled";
+    public final static String LOOKUP = "lookup";
+    public final static String ADAPTIVE = "adaptive";
+
+    // The engine used when none is specified
+    public final static String DEFAULT = MAP;
+
+
+    private GameOfLifeEngines() {
+    }
+
+    /**
+     * Gets the names of the engines which can be created.
+     *
+     * @return the engine names
+     */
+    public final static String[] getNames() {
+        return new String[] {MAP, DENSE, SPARSE, TILED, LOOKUP, ADAPTIVE};
+    }
+
+    /**
+     * Creates an engine with no life, which follows the rule of the "game of life".
+     *
+     * @param name the name of the engine
+     * @param rows the number of rows to use
+     * @param columns the number of columns to use
+     * @return the engine
+     */
+    public final static GameOfLifeEngine create(final String name, final int rows, final int columns) {
+        return create(name, rows, columns, GameOfLifeRule.CONWAY);
+    }
+
+    /**
+     * Creates an engine with no life. Only the lookup engine supports rules other than that of the "game of life".
+     *
+     * @param name the name of the engine
+     * @param rows the number of rows to use
+     * @param columns the number of columns to use
+     * @param rule the rule to follow
+     * @return the engine
+     */
+    public final static GameOfLifeEngine create(final String name, final int rows, final int columns, final GameOfLifeRule rule) {
+        if (LOOKUP.equals(name)) {
+            return new LookupTableEngine(rows, columns, rule);
+        }
+        if (!GameOfLifeRule.CONWAY.equals(rule)) {
+            throw new IllegalArgumentException("Engine '" + name + "' only supports " + GameOfLifeRule.CONWAY + "; use '" + LOOKUP + "' for " + rule);
+        }
+
+        switch (name) {
+            case MAP:
+                return new MapEngine(rows, columns);
+            case DENSE:
+                return new DenseEngine(rows, columns);
+            case SPARSE:
+                return new SparseEngine(rows, columns);
+            case TILED:
+                return new TiledEngine(rows, columns);
+            case ADAPTIVE:
+                return new AdaptiveEngine(rows, columns);
+            default:
+                throw new IllegalArgumentException("Unknown engine '" + name + "'; expected one of " + String.join(", ", getNames()));
+        }
+    }
+
+}
@@ -0,0 +1,439 @@
+package com.ghidiu.gameoflife;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every nth generation of a game to a binary file, one bit per cell (or per block of cells when downscaled).
+ *
+ * The stepping thread only hands an immutable snapshot (see {@link GameOfLifeEngine#snapshot()}) to a queue;
+ * cropping, downscaling, encoding and writing happen on a background thread, through a direct buffer and a
+ * {@link FileChannel}. If the writer falls behind and the queue is full, the frame is dropped rather than blocking
+ * the stepping thread.
+ *
+ * Formats:
+ * <ul>
+ * <li>{@link Format#PBM}: a sequence of binary PBM (P4) images, which netpbm tools read as a multi-image file.</li>
+ * <li>{@link Format#PACKED}: the header "GOLF", then the int version, width and height; each frame is the long
+ * generation followed by each row packed into longs, column c being bit (c % 64) of word (c / 64). All values are
+ * big-endian.</li>
+ * </ul>
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeFrameRecorder implements Closeable {
+
+    /**
+     * The file formats.
+     */
+    public enum Format {
+        PBM,
+        PACKED
+    }
+
+    // The packed format header
+    final static byte[] PACKED_MAGIC = {'G', 'O', 'L', 'F'};
+    final static int PACKED_VERSION = 1;
+
+    // Marks the end of the queue
+    private final static Frame END = new Frame(-1, null);
+
+    // How long close() waits for room in the queue before checking that the writer is still running
+    private final static long CLOSE_POLL_MILLIS = 100;
+
+    // The output
+    private final FileChannel channel;
+    private final Format format;
+
+    // The dimensions of the recorded board
+    private final int rows;
+    private final int columns;
+
+    // Which generations are recorded
+    private final int interval;
+
+    // The recorded region (clipped to the board) and the scale
+    private final GameOfLifeRegion region;
+    private final int scale;
+
+    // The dimensions of a recorded frame
+    private final int width;
+    private final int height;
+
+    // The frames waiting to be written
+    private final BlockingQueue<Frame> queue;
+
+    // The background writer
+    private final Thread writer;
+
+    // The first failure of the writer (after which it stops)
+    private volatile IOException failure;
+
+    // Statistics
+    private volatile long writtenFrames;
+    private long droppedFrames;
+
+    private boolean closed;
+
+
+    /**
+     * Creates a recorder, replacing the file if it exists.
+     *
+     * @param path the file to write
+     * @param format the file format
+     * @param rows the number of rows of the recorded board
+     * @param columns the number of columns of the recorded board
+     * @param interval the generations which are a multiple of this are recorded
+     * @param crop the region to record (clipped to the board), or null for the whole board
+     * @param scale the size of the square block of cells which becomes one pixel; a pixel is set if any cell of its
+     *              block is alive
+     * @param queueCapacity the number of frames which may wait for the writer
+     * @throws IOException if the file cannot be opened, or its header cannot be written
+     */
+    public GameOfLifeFrameRecorder(final Path path, final Format format, final int rows, final int columns, final int interval,
+                                   final GameOfLifeRegion crop, final int scale, final int queueCapacity) throws IOException {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        if (scale < 1) {
+            throw new IllegalArgumentException("scale must be positive: " + scale);
+        }
+
+        this.format = format;
+        this.rows = rows;
+        this.columns = columns;
+        this.interval = interval;
+        this.region = (null == crop ? new GameOfLifeRegion(0, 0, rows, columns) : crop).clip(rows, columns);
+        this.scale = scale;
+        this.width = (this.region.getColumns() + scale - 1) / scale;
+        this.height = (this.region.getRows() + scale - 1) / scale;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            if (Format.PACKED == format) {
+                final ByteBuffer header = ByteBuffer.allocate(16);
+                header.put(PACKED_MAGIC).putInt(PACKED_VERSION).putInt(this.width).putInt(this.height).flip();
+                writeFully(header);
+            }
+
+            this.writer = new Thread(this::writeFrames, "gameoflife-frame-recorder");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } catch (final Throwable t) {
+            // Nobody can close a recorder which was never constructed
+            try {
+                this.channel.close();
+            } catch (final IOException e) {
+                t.addSuppressed(e);
+            }
+            throw t;
+        }
+    }
+
+    /**
+     * Gets the width of a recorded frame.
+     *
+     * @return the width in pixels
+     */
+    public final int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Gets the height of a recorded frame.
+     *
+     * @return the height in pixels
+     */
+    public final int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Gets the number of frames which have been written.
+     *
+     * @return the number of written frames
+     */
+    public final long getWrittenFrames() {
+        return this.writtenFrames;
+    }
+
+    /**
+     * Gets the number of frames which were dropped because the writer fell behind.
+     *
+     * @return the number of dropped frames
+     */
+    public final long getDroppedFrames() {
+        return this.droppedFrames;
+    }
+
+    /**
+     * Offers a generation for recording. This never blocks: generations which are not a multiple of the interval are
+     * ignored, and the frame is dropped if the writer has fallen behind.
+     *
+     * @param generation the generation number
+     * @param snapshot an immutable view of the generation
+     * @return true if the frame was queued; false if it was ignored or dropped
+     * @throws IOException if the writer has failed
+     * @throws IllegalArgumentException if the snapshot does not have the dimensions of the recorded board
+     */
+    public final boolean record(final long generation, final GameOfLifeView snapshot) throws IOException {
+        if (this.closed) {
+            throw new IllegalStateException("recorder is closed");
+        }
+        if (null != this.failure) {
+            throw this.failure;
+        }
+        if (snapshot.getRows() != this.rows || snapshot.getColumns() != this.columns) {
+            throw new IllegalArgumentException("snapshot is " + snapshot.getRows() + "x" + snapshot.getColumns()
+                    + ", but the recorded board is " + this.rows + "x" + this.columns);
+        }
+        if (0 != generation % this.interval) {
+            return false;
+        }
+
+        if (!this.queue.offer(new Frame(generation, snapshot))) {
+            this.droppedFrames++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the queued frames and closes the file.
+     *
+     * @throws IOException if writing failed
+     */
+    @Override
+    public final void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+
+        try {
+            // A writer which has failed no longer takes from the queue, so only wait for room while it is running
+            while (!this.queue.offer(END, CLOSE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!this.writer.isAlive()) {
+                    break;
+                }
+            }
+            this.writer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while closing the recorder", e);
+        } finally {
+            this.channel.close();
+        }
+
+        if (null != this.failure) {
+            throw this.failure;
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // Writer thread
+    ////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Encodes and writes frames until the end of the queue.
+     */
+    private void writeFrames() {
+        final int rowWords = GameOfLifeMapUtil.getWordsPerRow(this.width);
+        final byte[] pbmHeader = ("P4\n" + this.width + " " + this.height + "\n").getBytes(StandardCharsets.US_ASCII);
+        final int frameSize = Format.PBM == this.format
+                ? pbmHeader.length + this.height * ((this.width + 7) / 8)
+                : 8 + this.height * rowWords * 8;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(frameSize);
+
+        // The cropped source row and the scaled output row
+        final long[] source = new long[GameOfLifeMapUtil.getWordsPerRow(this.region.getColumns())];
+        final long[] sourceBlock = new long[source.length];
+        final long[] pixels = new long[rowWords];
+
+        try {
+            for (Frame frame = this.queue.take(); END != frame; frame = this.queue.take()) {
+                if (null != this.failure) {
+                    continue;
+                }
+
+                buffer.clear();
+                if (Format.PBM == this.format) {
+                    buffer.put(pbmHeader);
+                } else {
+                    buffer.putLong(frame.generation);
+                }
+
+                for (int y = 0; y < this.height; y++) {
+                    // OR together the source rows of this pixel row
+                    Arrays.fill(sourceBlock, 0L);
+                    final int firstRow = this.region.getRow() + y * this.scale;
+                    final int lastRow = Math.min(this.region.getRow() + this.region.getRows(), firstRow + this.scale);
+                    for (int row = firstRow; row < lastRow; row++) {
+                        readRow(frame.snapshot, row, source);
+                        for (int i = 0; i < source.length; i++) {
+                            sourceBlock[i] |= source[i];
+                        }
+                    }
+
+                    scaleRow(sourceBlock, pixels);
+
+                    if (Format.PBM == this.format) {
+                        putPbmRow(buffer, pixels);
+                    } else {
+                        for (final long word : pixels) {
+                            buffer.putLong(word);
+                        }
+                    }
+                }
+
+                buffer.flip();
+                writeFully(buffer);
+                this.writtenFrames++;
+            }
+        } catch (final IOException e) {
+            this.failure = e;
+        } catch (final InterruptedException e) {
+            this.failure = new IOException("recorder interrupted", e);
+        } catch (final Throwable t) {
+            // Anything else would end the thread silently, leaving record() and close() unaware
+            this.failure = new IOException("recorder failed", t);
+        }
+    }
+
+    /**
+     * Reads the cropped part of a row, packed.
+     *
+     * @param snapshot the generation
+     * @param row the row to read
+     * @param target the words to fill
+     */
+    private void readRow(final GameOfLifeView snapshot, final int row, final long[] target) {
+        final int firstColumn = this.region.getColumn();
+        final int columns = this.region.getColumns();
+
+        if (snapshot instanceof GameOfLifePackedView || snapshot instanceof GameOfLifeTiledBoard) {
+            // Shift whole words into place
+            final int sourceWords = GameOfLifeMapUtil.getWordsPerRow(snapshot.getColumns());
+            final int base = firstColumn >>> 6;
+            final int shift = firstColumn & 63;
+            for (int i = 0; i < target.length; i++) {
+                final long low = wordOf(snapshot, row, base + i, sourceWords);
+                final long high = 0 == shift ? 0 : wordOf(snapshot, row, base + i + 1, sourceWords) << (64 - shift);
+                target[i] = (low >>> shift) | high;
+            }
+            if (0 != (columns & 63)) {
+                target[target.length - 1] &= (1L << columns) - 1;
+            }
+        } else {
+            Arrays.fill(target, 0L);
+            for (int column = 0; column < columns; column++) {
+                if (snapshot.getLife(row, firstColumn + column)) {
+                    target[column >>> 6] |= 1L << column;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets a word of a packed row of a packed or tiled snapshot, or 0 past the end of the row.
+     */
+    private static long wordOf(final GameOfLifeView snapshot, final int row, final int word, final int sourceWords) {
+        if (word >= sourceWords) {
+            return 0;
+        }
+        return snapshot instanceof GameOfLifePackedView
+                ? ((GameOfLifePackedView) snapshot).getWord(row, word)
+                : ((GameOfLifeTiledBoard) snapshot).getWord(row, word);
+    }
+
+    /**
+     * Scales a row down; a pixel is set if any bit of its block is set.
+     *
+     * @param source the cropped row
+     * @param pixels the pixel row to fill
+     */
+    private void scaleRow(final long[] source, final long[] pixels) {
+        if (1 == this.scale) {
+            System.arraycopy(source, 0, pixels, 0, pixels.length);
+            return;
+        }
+
+        Arrays.fill(pixels, 0L);
+        for (int x = 0; x < this.width; x++) {
+            final int from = x * this.scale;
+            final int to = Math.min(this.region.getColumns(), from + this.scale);
+            if (anyBit(source, from, to)) {
+                pixels[x >>> 6] |= 1L << x;
+            }
+        }
+    }
+
+    /**
+     * Determines if any bit in [from, to) is set.
+     */
+    private static boolean anyBit(final long[] bits, final int from, final int to) {
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+            long mask = -1L;
+            if (word == from >>> 6) {
+                mask &= -1L << (from & 63);
+            }
+            if (word == (to - 1) >>> 6) {
+                mask &= -1L >>> (63 - ((to - 1) & 63));
+            }
+            if (0 != (bits[word] & mask)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes a pixel row as PBM bytes: the most significant bit of each byte is the leftmost pixel.
+     */
+    private void putPbmRow(final ByteBuffer buffer, final long[] pixels) {
+        int remaining = (this.width + 7) / 8;
+        for (int i = 0; remaining > 0; i++) {
+            final long reversed = Long.reverse(pixels[i]);
+            for (int shift = 56; shift >= 0 && remaining > 0; shift -= 8, remaining--) {
+                buffer.put((byte) (reversed >>> shift));
+            }
+        }
+    }
+
+    /**
+     * Writes the whole buffer to the file.
+     */
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+    }
+
+
+    /**
+     * A queued generation.
+     */
+    private final static class Frame {
+
+        private final long generation;
+        private final GameOfLifeView snapshot;
+
+        private Frame(final long generation, final GameOfLifeView snapshot) {
+            this.generation = generation;
+            this.snapshot = snapshot;
+        }
+
+    }
+
+}
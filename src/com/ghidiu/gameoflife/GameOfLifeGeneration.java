@@ -0,0 +1,146 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * An immutable, completed generation of a {@link GameOfLife}: the board on one day, with its tile counts. Any thread
+ * may query a generation without locking, while later days are being run.
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeGeneration {
+
+    // The day of the generation
+    private final long day;
+
+    // The board
+    private final GameOfLifeView board;
+
+    // The living cell count of each tile of the board (never changed after construction)
+    private final GameOfLifeTileIndex tileIndex;
+
+
+    /**
+     * Creates a generation.
+     *
+     * @param day the day of the generation
+     * @param board an immutable view of the board
+     * @param tileIndex the tile counts of the board, which are not changed afterwards
+     */
+    GameOfLifeGeneration(final long day, final GameOfLifeView board, final GameOfLifeTileIndex tileIndex) {
+        this.day = day;
+        this.board = board;
+        this.tileIndex = tileIndex;
+    }
+
+    /**
+     * Gets the day of the generation.
+     *
+     * @return the day
+     */
+    public final long getDay() {
+        return this.day;
+    }
+
+    /**
+     * Gets the board of the generation.
+     *
+     * @return an immutable view of the board
+     */
+    public final GameOfLifeView getBoard() {
+        return this.board;
+    }
+
+    /**
+     * Determines if the generation has life.
+     *
+     * @return true, if life exists; false otherwise
+     */
+    public final boolean hasLife() {
+        return 0 != this.tileIndex.getPopulation();
+    }
+
+    /**
+     * Counts the living cells.
+     *
+     * @return the number of living cells
+     */
+    public final long population() {
+        return this.tileIndex.getPopulation();
+    }
+
+    /**
+     * Gets the number of cells born on this day (0 on the first day).
+     *
+     * @return the number of cells born
+     */
+    public final long getBirths() {
+        return this.tileIndex.getBirths();
+    }
+
+    /**
+     * Gets the number of cells which died on this day (0 on the first day).
+     *
+     * @return the number of cells which died
+     */
+    public final long getDeaths() {
+        return this.tileIndex.getDeaths();
+    }
+
+    /**
+     * Gets the area of the bounding box of life, as found while the day was run.
+     *
+     * @return the number of cells in the bounding box, or 0 if there is no life
+     */
+    public final long getBoundingBoxArea() {
+        final GameOfLifeRegion extent = this.tileIndex.getExtent();
+        return null == extent ? 0 : (long) extent.getRows() * extent.getColumns();
+    }
+
+    /**
+     * Gets the share of the board which changed on this day.
+     *
+     * @return the births and deaths, divided by the area of the board
+     */
+    public final double getActivity() {
+        return (double) (getBirths() + getDeaths()) / Math.max(1L, (long) this.board.getRows() * this.board.getColumns());
+    }
+
+    /**
+     * Counts the living cells in a region.
+     *
+     * @param region the region to count; parts outside of the board are ignored
+     * @return the number of living cells in the region
+     */
+    public final long population(final GameOfLifeRegion region) {
+        return this.tileIndex.population(region, this.board);
+    }
+
+    /**
+     * Finds the smallest region which contains every living cell.
+     *
+     * @return the bounding box of life, or null if there is no life
+     */
+    public final GameOfLifeRegion boundingBox() {
+        return this.tileIndex.boundingBox(this.board);
+    }
+
+    /**
+     * Gets a view of a region of the board, without copying it.
+     *
+     * @param region the region to view; parts outside of the board are ignored
+     * @return a view of the region
+     */
+    public final GameOfLifeView viewport(final GameOfLifeRegion region) {
+        return new GameOfLifeRegionView(this.board, region);
+    }
+
+    /**
+     * Returns a formatted representation of the board.
+     *
+     * @return a formatted representation of the board
+     */
+    @Override
+    public final String toString() {
+        return GameOfLifeMapUtil.toString(this.board);
+    }
+
+}
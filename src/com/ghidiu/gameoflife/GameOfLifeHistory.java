@@ -0,0 +1,466 @@
+package com.ghidiu.gameoflife;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * A seekable record of the generations of a game.
+ *
+ * Every keyframe interval generations a full frame is stored; the generations in between are stored as the XOR of
+ * their packed map with the previous generation, keeping only the non-zero words. Seeking therefore decodes one
+ * keyframe and at most (keyframe interval - 1) deltas. Encoded records are held on the heap until they exceed the
+ * memory budget, at which point they are appended to a spill file; spilled records are read back one at a time with
+ * positional reads, so a long history holds no more than one file handle and one read buffer. Closing the history
+ * deletes the spill file, if the history created it.
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeHistory implements Closeable {
+
+    // Record type flags
+    private final static byte KEYFRAME = 1;
+    private final static byte RAW = 2;
+
+    // The dimensions of the recorded map
+    private final int rows;
+    private final int columns;
+    private final int wordCount;
+
+    // The distance between keyframes
+    private final int keyframeInterval;
+
+    // The number of encoded bytes to hold on the heap before spilling
+    private final int memoryBudget;
+
+    // The spill file (created on demand when not provided, in which case it is deleted on close)
+    private File spillFile;
+    private boolean temporarySpillFile;
+    private RandomAccessFile spillAccess;
+
+    // Whether the history has been closed
+    private boolean closed;
+
+    // The offset of each generation's record in the (logical) store
+    private long[] offsets = new long[64];
+    private int generationCount;
+
+    // The packed map of the last recorded generation (the base for the next delta)
+    private long[] previous;
+
+    // The records which have not been spilled yet
+    private byte[] heap = new byte[1024];
+    private int heapSize;
+
+    // The number of bytes which have been spilled, and the buffer which spilled records are read back into
+    private long spilledSize;
+    private ByteBuffer spillBuffer = ByteBuffer.allocate(1024);
+
+    // The last decoded generation; sequential seeking continues from here
+    private long[] cachedFrame;
+    private int cachedGeneration = -1;
+
+
+    /**
+     * Creates a history which spills to a temporary file.
+     *
+     * @param rows the number of rows of the recorded map
+     * @param columns the number of columns of the recorded map
+     * @param keyframeInterval the number of generations between full frames
+     * @param memoryBudget the number of encoded bytes to keep on the heap
+     */
+    public GameOfLifeHistory(final int rows, final int columns, final int keyframeInterval, final int memoryBudget) {
+        this(rows, columns, keyframeInterval, memoryBudget, null);
+    }
+
+    /**
+     * Creates a history.
+     *
+     * @param rows the number of rows of the recorded map
+     * @param columns the number of columns of the recorded map
+     * @param keyframeInterval the number of generations between full frames
+     * @param memoryBudget the number of encoded bytes to keep on the heap
+     * @param spillFile the file to spill to, or null to use a temporary file
+     */
+    public GameOfLifeHistory(final int rows, final int columns, final int keyframeInterval, final int memoryBudget, final File spillFile) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("keyframeInterval must be positive: " + keyframeInterval);
+        }
+        if (memoryBudget < 1) {
+            throw new IllegalArgumentException("memoryBudget must be positive: " + memoryBudget);
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.wordCount = rows * GameOfLifeMapUtil.getWordsPerRow(columns);
+        this.keyframeInterval = keyframeInterval;
+        this.memoryBudget = memoryBudget;
+        this.spillFile = spillFile;
+    }
+
+    /**
+     * Gets the number of rows of the recorded map.
+     *
+     * @return the number of rows
+     */
+    public final int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets the number of columns of the recorded map.
+     *
+     * @return the number of columns
+     */
+    public final int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Gets the number of recorded generations.
+     *
+     * @return the number of recorded generations
+     */
+    public final int size() {
+        return this.generationCount;
+    }
+
+    /**
+     * Gets the number of encoded bytes which have been spilled to disk.
+     *
+     * @return the number of spilled bytes
+     */
+    public final long getSpilledSize() {
+        return this.spilledSize;
+    }
+
+    /**
+     * Records the next generation.
+     *
+     * @param map the map of the generation
+     */
+    public final void record(final boolean[][] map) {
+        if (map.length != this.rows || (0 != map.length && map[0].length != this.columns)) {
+            throw new IllegalArgumentException("map dimensions do not match the history");
+        }
+        record(GameOfLifeMapUtil.pack(map));
+    }
+
+    /**
+     * Records the next generation.
+     *
+     * @param view the view of the generation
+     */
+    public final void record(final GameOfLifeView view) {
+        if (view.getRows() != this.rows || view.getColumns() != this.columns) {
+            throw new IllegalArgumentException("view dimensions do not match the history");
+        }
+
+        // Immutable packed views can be retained as they are
+        record(view instanceof GameOfLifePackedView ? ((GameOfLifePackedView) view).getWords() : GameOfLifeMapUtil.pack(view));
+    }
+
+    /**
+     * Records the next generation.
+     *
+     * @param words the packed map of the generation; this is retained and must not be modified afterwards
+     */
+    final void record(final long[] words) {
+        checkOpen();
+
+        final boolean keyframe = 0 == this.generationCount % this.keyframeInterval;
+
+        // Encode the frame (or the difference from the previous frame)
+        final long[] frame;
+        if (keyframe) {
+            frame = words;
+        } else {
+            frame = new long[this.wordCount];
+            for (int i = 0; i < this.wordCount; i++) {
+                frame[i] = words[i] ^ this.previous[i];
+            }
+        }
+
+        if (this.generationCount == this.offsets.length) {
+            this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+        }
+        this.offsets[this.generationCount++] = this.spilledSize + this.heapSize;
+        encode(frame, keyframe);
+        this.previous = words;
+
+        if (this.heapSize > this.memoryBudget) {
+            spill();
+        }
+    }
+
+    /**
+     * Decodes a recorded generation. Seeking costs at most one keyframe and (keyframe interval - 1) deltas.
+     *
+     * @param generation the generation to decode
+     * @return the map of the generation
+     */
+    public final boolean[][] seek(final int generation) {
+        return GameOfLifeMapUtil.unpack(seekPacked(generation), this.rows, this.columns);
+    }
+
+    /**
+     * Decodes a recorded generation into its packed form.
+     *
+     * @param generation the generation to decode
+     * @return the packed map of the generation (a copy)
+     */
+    final long[] seekPacked(final int generation) {
+        checkOpen();
+        if (generation < 0 || generation >= this.generationCount) {
+            throw new IndexOutOfBoundsException("generation " + generation + " of " + this.generationCount);
+        }
+
+        final int keyframe = generation - generation % this.keyframeInterval;
+
+        // Continue from the cached generation when it lies between the keyframe and the target
+        int current;
+        long[] frame;
+        if (this.cachedGeneration >= keyframe && this.cachedGeneration <= generation) {
+            current = this.cachedGeneration;
+            frame = this.cachedFrame;
+        } else {
+            current = keyframe;
+            frame = new long[this.wordCount];
+            decode(keyframe, frame);
+        }
+
+        while (current < generation) {
+            decode(++current, frame);
+        }
+
+        this.cachedGeneration = generation;
+        this.cachedFrame = frame;
+
+        return frame.clone();
+    }
+
+    /**
+     * Gets the spill file.
+     *
+     * @return the spill file, or null if nothing has been spilled to a temporary file yet
+     */
+    final File getSpillFile() {
+        return this.spillFile;
+    }
+
+    /**
+     * Releases the spill file, deleting it if it is temporary. The history can no longer be recorded to or sought.
+     */
+    @Override
+    public final void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+
+        try {
+            if (null != this.spillAccess) {
+                this.spillAccess.close();
+                this.spillAccess = null;
+            }
+            if (this.temporarySpillFile) {
+                Files.deleteIfExists(this.spillFile.toPath());
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("history is closed");
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // Encoding
+    ////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Appends a record to the heap. Sparse records hold the gap since the previous non-zero word followed by the
+     * word; raw records hold every word.
+     *
+     * @param frame the words to encode
+     * @param keyframe true if the record is a keyframe; false if it is a delta
+     */
+    private void encode(final long[] frame, final boolean keyframe) {
+        int nonZeroCount = 0;
+        for (final long word : frame) {
+            if (0 != word) {
+                nonZeroCount++;
+            }
+        }
+
+        // Worst case: type, count and a 5 byte gap with each word
+        final boolean raw = (long) nonZeroCount * 9 >= (long) frame.length * 8;
+        ensureHeapCapacity(1 + 5 + (raw ? frame.length * 8 : nonZeroCount * 13));
+
+        writeByte((byte) ((keyframe ? KEYFRAME : 0) | (raw ? RAW : 0)));
+        if (raw) {
+            for (final long word : frame) {
+                writeLong(word);
+            }
+        } else {
+            writeVarInt(nonZeroCount);
+            int last = -1;
+            for (int i = 0; i < frame.length; i++) {
+                if (0 != frame[i]) {
+                    writeVarInt(i - last - 1);
+                    writeLong(frame[i]);
+                    last = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes a record into a frame. Keyframes replace the frame; deltas are XORed into it.
+     *
+     * @param generation the generation whose record to decode
+     * @param frame the frame to update
+     */
+    private void decode(final int generation, final long[] frame) {
+        final ByteBuffer buffer = locate(generation);
+
+        final byte type = buffer.get();
+        final boolean keyframe = 0 != (type & KEYFRAME);
+        if (keyframe) {
+            Arrays.fill(frame, 0L);
+        }
+
+        if (0 != (type & RAW)) {
+            for (int i = 0; i < frame.length; i++) {
+                frame[i] ^= buffer.getLong();
+            }
+        } else {
+            final int count = readVarInt(buffer);
+            int index = -1;
+            for (int i = 0; i < count; i++) {
+                index += readVarInt(buffer) + 1;
+                frame[index] ^= buffer.getLong();
+            }
+        }
+    }
+
+    /**
+     * Gets a buffer positioned at a record.
+     *
+     * @param generation the generation whose record to find
+     * @return a buffer positioned at the record
+     */
+    private ByteBuffer locate(final int generation) {
+        final long offset = this.offsets[generation];
+        if (offset >= this.spilledSize) {
+            return ByteBuffer.wrap(this.heap, (int) (offset - this.spilledSize), this.heapSize - (int) (offset - this.spilledSize));
+        }
+
+        // Records are spilled whole, so a spilled record ends where the next record (or the heap) starts
+        final long end = generation + 1 < this.generationCount ? this.offsets[generation + 1] : this.spilledSize;
+        final int length = (int) (end - offset);
+        if (length > this.spillBuffer.capacity()) {
+            this.spillBuffer = ByteBuffer.allocate(Math.max(length, this.spillBuffer.capacity() * 2));
+        }
+        this.spillBuffer.clear();
+        this.spillBuffer.limit(length);
+
+        try {
+            final FileChannel channel = this.spillAccess.getChannel();
+            long position = offset;
+            while (this.spillBuffer.hasRemaining()) {
+                final int read = channel.read(this.spillBuffer, position);
+                if (read < 0) {
+                    throw new EOFException("spill file ends before generation " + generation);
+                }
+                position += read;
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.spillBuffer.flip();
+        return this.spillBuffer;
+    }
+
+    /**
+     * Appends the heap records to the spill file.
+     */
+    private void spill() {
+        try {
+            if (null == this.spillAccess) {
+                if (null == this.spillFile) {
+                    this.spillFile = File.createTempFile("gameoflife-history", ".bin");
+                    this.spillFile.deleteOnExit();
+                    this.temporarySpillFile = true;
+                }
+                this.spillAccess = new RandomAccessFile(this.spillFile, "rw");
+                this.spillAccess.setLength(0);
+            }
+
+            final FileChannel channel = this.spillAccess.getChannel();
+            final ByteBuffer source = ByteBuffer.wrap(this.heap, 0, this.heapSize);
+            long position = this.spilledSize;
+            while (source.hasRemaining()) {
+                position += channel.write(source, position);
+            }
+
+            this.spilledSize += this.heapSize;
+            this.heapSize = 0;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Grows the heap so that it can hold additional bytes.
+     *
+     * @param additional the number of additional bytes
+     */
+    private void ensureHeapCapacity(final int additional) {
+        if (this.heapSize + additional > this.heap.length) {
+            this.heap = Arrays.copyOf(this.heap, Math.max(this.heap.length * 2, this.heapSize + additional));
+        }
+    }
+
+    private void writeByte(final byte value) {
+        this.heap[this.heapSize++] = value;
+    }
+
+    private void writeLong(final long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            this.heap[this.heapSize++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeVarInt(int value) {
+        while (0 != (value & ~0x7F)) {
+            this.heap[this.heapSize++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.heap[this.heapSize++] = (byte) value;
+    }
+
+    private static int readVarInt(final ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (0 == (b & 0x80)) {
+                return value;
+            }
+        }
+    }
+
+}
@@ -104,9 +104,27 @@ public final class GameOfLifeMapUtil {
      * @return a map which represents the end of the simulation
      */
     public final static boolean[][] runDay(final boolean[][] map) {
-        // Get a copy of "yesterday"
-        final boolean[][] yesterdayMap = cloneMap(map);
+        return runDay(map, null);
+    }
+
+    /**
+     * Runs a day simulation (see {@link #runDay(boolean[][])}), counting the living cells of the resulting map into a
+     * tile index as they are decided.
+     *
+     * @param map the map which represents the starting state of the simulation
+     * @param index the index to reset and count into, or null
+     * @return a map which represents the end of the simulation
+     */
+    final static boolean[][] runDay(final boolean[][] map, final GameOfLifeTileIndex index) {
+        if (null != index) {
+            index.clear();
+        }
+
+        // "Yesterday" is only read, so only "today" needs to be a copy
+        final boolean[][] yesterdayMap = map;
         final boolean[][] todayMap = cloneMap(yesterdayMap);
+        long births = 0;
+        long deaths = 0;
 
         for (int row = 0; row < yesterdayMap.length; row++) {
             for (int column = 0; column < yesterdayMap[row].length; column++) {
@@ -114,18 +132,77 @@ public final class GameOfLifeMapUtil {
                     int neighborCount = getLivingNeighborCount(row, column, yesterdayMap);
                     if (2 != neighborCount && 3 != neighborCount) {
                         setLife(row, column, false, todayMap);
+                        deaths++;
                     }
                 } else {
                     if (3 == getLivingNeighborCount(row, column, yesterdayMap)) {
                         setLife(row, column, true, todayMap);
+                        births++;
                     }
                 }
+
+                if (null != index && getLife(row, column, todayMap)) {
+                    index.add(row, column);
+                }
             }
         }
 
+        if (null != index) {
+            index.addChanges(births, deaths);
+        }
         return todayMap;
     }
 
+    /**
+     * Runs a day simulation for 64 packed cells at once (see {@link #pack(boolean[][])} and
+     * {@link #runDay(boolean[][])}). Each parameter is a word of a packed row; the words to the west and east only
+     * contribute their bit nearest to the center word.
+     *
+     * @param northWest the word to the west of the word above
+     * @param north the word above
+     * @param northEast the word to the east of the word above
+     * @param west the word to the west
+     * @param self the word to simulate
+     * @param east the word to the east
+     * @param southWest the word to the west of the word below
+     * @param south the word below
+     * @param southEast the word to the east of the word below
+     * @return the word at the end of the simulation
+     */
+    public final static long runDay(final long northWest, final long north, final long northEast,
+                                    final long west, final long self, final long east,
+                                    final long southWest, final long south, final long southEast) {
+        // The eight neighbors of each cell, aligned with the cell
+        final long a = (north << 1) | (northWest >>> 63);
+        final long b = north;
+        final long c = (north >>> 1) | (northEast << 63);
+        final long d = (self << 1) | (west >>> 63);
+        final long e = (self >>> 1) | (east << 63);
+        final long f = (south << 1) | (southWest >>> 63);
+        final long g = south;
+        final long h = (south >>> 1) | (southEast << 63);
+
+        // Add each group; s is the ones bit and t the twos bit of each sum
+        final long s1 = a ^ b ^ c;
+        final long t1 = (a & b) | (c & (a ^ b));
+        final long s2 = f ^ g ^ h;
+        final long t2 = (f & g) | (h & (f ^ g));
+        final long s3 = d ^ e;
+        final long t3 = d & e;
+
+        // Add the ones bits; o carries into the twos
+        final long ones = s1 ^ s2 ^ s3;
+        final long o = (s1 & s2) | (s3 & (s1 ^ s2));
+
+        // The count is 2 or 3 exactly when one of the twos bits (t1, t2, t3, o) is set
+        final long p1 = t1 ^ t2;
+        final long p2 = t3 ^ o;
+        final long exactlyOneTwo = (p1 ^ p2) & ~((t1 & t2) | (t3 & o));
+
+        // Alive with 3 neighbors, or with 2 neighbors if already alive
+        return exactlyOneTwo & (ones | self);
+    }
+
     /**
      * Gets the count of living neighbors. This counts all adjacent cells (vertical, horizontal and diagonal).
      *
@@ -210,6 +287,92 @@ public final class GameOfLifeMapUtil {
         return map[row][column];
     }
 
+    /**
+     * Gets the number of 64 bit words used to hold one packed row of a map.
+     *
+     * @param columns the number of columns in the map
+     * @return the number of words per packed row
+     */
+    public final static int getWordsPerRow(final int columns) {
+        return (columns + 63) >>> 6;
+    }
+
+    /**
+     * Packs a map into a bit set; each row starts on a word boundary and column c of a row is bit (c % 64) of word
+     * (c / 64) of that row.
+     *
+     * @param map the map to pack
+     * @return the packed representation of the map
+     */
+    public final static long[] pack(final boolean[][] map) {
+        // Edge case
+        if (0 == map.length) {
+            return new long[0];
+        }
+
+        final int wordsPerRow = getWordsPerRow(map[0].length);
+        final long[] words = new long[map.length * wordsPerRow];
+
+        for (int row = 0; row < map.length; row++) {
+            for (int column = 0; column < map[row].length; column++) {
+                if (getLife(row, column, map)) {
+                    words[row * wordsPerRow + (column >>> 6)] |= 1L << column;
+                }
+            }
+        }
+
+        return words;
+    }
+
+    /**
+     * Packs a view into a bit set (see {@link #pack(boolean[][])}).
+     *
+     * @param view the view to pack
+     * @return the packed representation of the view
+     */
+    public final static long[] pack(final GameOfLifeView view) {
+        // Packed views already hold the representation
+        if (view instanceof GameOfLifePackedView) {
+            return ((GameOfLifePackedView) view).getWords().clone();
+        }
+
+        final int wordsPerRow = getWordsPerRow(view.getColumns());
+        final long[] words = new long[view.getRows() * wordsPerRow];
+
+        for (int row = 0; row < view.getRows(); row++) {
+            for (int column = 0; column < view.getColumns(); column++) {
+                if (view.getLife(row, column)) {
+                    words[row * wordsPerRow + (column >>> 6)] |= 1L << column;
+                }
+            }
+        }
+
+        return words;
+    }
+
+    /**
+     * Unpacks a bit set created by {@link #pack(boolean[][])} into a map.
+     *
+     * @param words the packed representation of the map
+     * @param rows the number of rows for the map
+     * @param columns the number of columns for the map
+     * @return the unpacked map
+     */
+    public final static boolean[][] unpack(final long[] words, final int rows, final int columns) {
+        final boolean[][] map = createMap(rows, columns, false);
+        final int wordsPerRow = getWordsPerRow(columns);
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (0 != (words[row * wordsPerRow + (column >>> 6)] & (1L << column))) {
+                    setLife(row, column, true, map);
+                }
+            }
+        }
+
+        return map;
+    }
+
     /**
      * Returns a pretty representation of the map.
      * @param map the map to format
@@ -228,4 +391,22 @@ public final class GameOfLifeMapUtil {
         return stringBuffer.toString();
     }
 
+    /**
+     * Returns a pretty representation of a view (see {@link #toString(boolean[][])}).
+     * @param view the view to format
+     * @return a pretty representation of the view
+     */
+    public final static String toString(final GameOfLifeView view) {
+        final StringBuilder stringBuilder = new StringBuilder((view.getColumns() + System.lineSeparator().length()) * view.getRows());
+
+        for (int row = 0; row < view.getRows(); row++) {
+            for (int column = 0; column < view.getColumns(); column++) {
+                stringBuilder.append(view.getLife(row, column) ? 'X' : 'O');
+            }
+            stringBuilder.append(System.lineSeparator());
+        }
+
+        return stringBuilder.toString();
+    }
+
 }
@@ -0,0 +1,56 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * A read-only view of a map. The map is not copied, so the view reflects the map it was created from.
+ *
+ * @author jghidiu
+ */
+final class GameOfLifeMapView implements GameOfLifeView {
+
+    // The viewed map
+    private final boolean[][] map;
+
+    // The dimensions of the map
+    private final int rows;
+    private final int columns;
+
+
+    /**
+     * Creates a view of a map.
+     *
+     * @param map the map to view
+     * @param rows the number of rows of the map
+     * @param columns the number of columns of the map
+     */
+    GameOfLifeMapView(final boolean[][] map, final int rows, final int columns) {
+        this.map = map;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    @Override
+    public final int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public final int getColumns() {
+        return this.columns;
+    }
+
+    @Override
+    public final boolean getLife(final int row, final int column) {
+        return GameOfLifeMapUtil.getLife(row, column, this.map);
+    }
+
+    /**
+     * Returns a formatted representation of the view.
+     *
+     * @return a formatted representation of the view
+     */
+    @Override
+    public final String toString() {
+        return GameOfLifeMapUtil.toString(this);
+    }
+
+}
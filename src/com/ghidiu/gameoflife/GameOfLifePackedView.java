@@ -0,0 +1,81 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * An immutable view of a packed map (see {@link GameOfLifeMapUtil#pack(boolean[][])}).
+ *
+ * @author jghidiu
+ */
+final class GameOfLifePackedView implements GameOfLifeView {
+
+    // The packed map; never modified
+    private final long[] words;
+
+    // The dimensions of the map
+    private final int rows;
+    private final int columns;
+    private final int wordsPerRow;
+
+
+    /**
+     * Creates a view.
+     *
+     * @param words the packed map; the caller must not modify it afterwards
+     * @param rows the number of rows of the map
+     * @param columns the number of columns of the map
+     */
+    GameOfLifePackedView(final long[] words, final int rows, final int columns) {
+        this.words = words;
+        this.rows = rows;
+        this.columns = columns;
+        this.wordsPerRow = GameOfLifeMapUtil.getWordsPerRow(columns);
+    }
+
+    /**
+     * Gets the packed map. This is shared, and must not be modified.
+     *
+     * @return the packed map
+     */
+    final long[] getWords() {
+        return this.words;
+    }
+
+    /**
+     * Gets one word of a packed row.
+     *
+     * @param row the row
+     * @param word the index of the word within the row
+     * @return the word
+     */
+    final long getWord(final int row, final int word) {
+        return this.words[row * this.wordsPerRow + word];
+    }
+
+    @Override
+    public final int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public final int getColumns() {
+        return this.columns;
+    }
+
+    @Override
+    public final boolean getLife(final int row, final int column) {
+        if (column < 0 || column >= this.columns) {
+            throw new IndexOutOfBoundsException("column " + column);
+        }
+        return 0 != (this.words[row * this.wordsPerRow + (column >>> 6)] & (1L << column));
+    }
+
+    /**
+     * Returns a formatted representation of the view.
+     *
+     * @return a formatted representation of the view
+     */
+    @Override
+    public final String toString() {
+        return GameOfLifeMapUtil.toString(this);
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * An immutable rectangle of cells on a game board.
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeRegion {
+
+    // The top left cell
+    private final int row;
+    private final int column;
+
+    // The size
+    private final int rows;
+    private final int columns;
+
+
+    /**
+     * Creates a region.
+     *
+     * @param row the row coordinate of the top left cell
+     * @param column the column coordinate of the top left cell
+     * @param rows the number of rows
+     * @param columns the number of columns
+     */
+    public GameOfLifeRegion(final int row, final int column, final int rows, final int columns) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("region size must not be negative: " + rows + "x" + columns);
+        }
+
+        this.row = row;
+        this.column = column;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Gets the row coordinate of the top left cell.
+     *
+     * @return the first row
+     */
+    public final int getRow() {
+        return this.row;
+    }
+
+    /**
+     * Gets the column coordinate of the top left cell.
+     *
+     * @return the first column
+     */
+    public final int getColumn() {
+        return this.column;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return the number of rows
+     */
+    public final int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Gets the number of columns.
+     *
+     * @return the number of columns
+     */
+    public final int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Clips this region to a board.
+     *
+     * @param boardRows the number of rows on the board
+     * @param boardColumns the number of columns on the board
+     * @return the part of this region which lies on the board (possibly empty)
+     */
+    public final GameOfLifeRegion clip(final int boardRows, final int boardColumns) {
+        final int firstRow = Math.max(0, this.row);
+        final int firstColumn = Math.max(0, this.column);
+        final int lastRow = Math.min(boardRows, this.row + this.rows);
+        final int lastColumn = Math.min(boardColumns, this.column + this.columns);
+
+        return new GameOfLifeRegion(firstRow, firstColumn, Math.max(0, lastRow - firstRow), Math.max(0, lastColumn - firstColumn));
+    }
+
+    @Override
+    public final boolean equals(final Object other) {
+        if (!(other instanceof GameOfLifeRegion)) {
+            return false;
+        }
+        final GameOfLifeRegion region = (GameOfLifeRegion) other;
+        return this.row == region.row && this.column == region.column && this.rows == region.rows && this.columns == region.columns;
+    }
+
+    @Override
+    public final int hashCode() {
+        return ((this.row * 31 + this.column) * 31 + this.rows) * 31 + this.columns;
+    }
+
+    /**
+     * Returns a formatted representation of the region.
+     *
+     * @return a formatted representation of the region
+     */
+    @Override
+    public final String toString() {
+        return "(" + this.row + ", " + this.column + ") " + this.rows + "x" + this.columns;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * A read-only view of a region of another view. Nothing is copied.
+ *
+ * @author jghidiu
+ */
+final class GameOfLifeRegionView implements GameOfLifeView {
+
+    // The viewed view
+    private final GameOfLifeView view;
+
+    // The viewed region (already clipped to the view)
+    private final GameOfLifeRegion region;
+
+
+    /**
+     * Creates a view of a region of a view.
+     *
+     * @param view the view to view
+     * @param region the region to view; this is clipped to the view
+     */
+    GameOfLifeRegionView(final GameOfLifeView view, final GameOfLifeRegion region) {
+        this.view = view;
+        this.region = region.clip(view.getRows(), view.getColumns());
+    }
+
+    @Override
+    public final int getRows() {
+        return this.region.getRows();
+    }
+
+    @Override
+    public final int getColumns() {
+        return this.region.getColumns();
+    }
+
+    @Override
+    public final boolean getLife(final int row, final int column) {
+        if (row < 0 || row >= this.region.getRows() || column < 0 || column >= this.region.getColumns()) {
+            throw new IndexOutOfBoundsException("(" + row + ", " + column + ") is outside of " + this.region);
+        }
+        return this.view.getLife(this.region.getRow() + row, this.region.getColumn() + column);
+    }
+
+    /**
+     * Returns a formatted representation of the view.
+     *
+     * @return a formatted representation of the view
+     */
+    @Override
+    public final String toString() {
+        return GameOfLifeMapUtil.toString(this);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * An immutable life-like rule in "B/S" notation: the neighbor counts at which a dead cell is born, and those at which
+ * a living cell survives. The "game of life" is B3/S23 (see {@link GameOfLifeMapUtil#runDay(boolean[][])}).
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeRule {
+
+    // The rule of the "game of life"
+    public final static GameOfLifeRule CONWAY = new GameOfLifeRule(1 << 3, (1 << 2) | (1 << 3));
+
+    // Bit n is set if a cell with n living neighbors is born (or survives)
+    private final int birthMask;
+    private final int survivalMask;
+
+
+    /**
+     * Creates a rule.
+     *
+     * @param birthMask bit n is set if a dead cell with n living neighbors is born
+     * @param survivalMask bit n is set if a living cell with n living neighbors survives
+     */
+    private GameOfLifeRule(final int birthMask, final int survivalMask) {
+        this.birthMask = birthMask;
+        this.survivalMask = survivalMask;
+    }
+
+    /**
+     * Parses a rule such as "B3/S23" (case insensitive).
+     *
+     * @param rule the rule to parse
+     * @return the rule
+     */
+    public final static GameOfLifeRule parse(final String rule) {
+        final String[] parts = rule.trim().toUpperCase().split("/");
+        if (2 != parts.length || !parts[0].startsWith("B") || !parts[1].startsWith("S")) {
+            throw new IllegalArgumentException("Rule '" + rule + "' is not in B/S notation, such as B3/S23");
+        }
+
+        return new GameOfLifeRule(parseCounts(rule, parts[0].substring(1)), parseCounts(rule, parts[1].substring(1)));
+    }
+
+    private static int parseCounts(final String rule, final String counts) {
+        int mask = 0;
+        for (final char c : counts.toCharArray()) {
+            if (c < '0' || c > '8') {
+                throw new IllegalArgumentException("Rule '" + rule + "' has an invalid neighbor count '" + c + "'");
+            }
+            mask |= 1 << (c - '0');
+        }
+        return mask;
+    }
+
+    /**
+     * Determines the aliveness of a cell on the next day.
+     *
+     * @param alive the aliveness of the cell
+     * @param neighborCount the number of living neighbors of the cell
+     * @return true if the cell is alive on the next day; false otherwise
+     */
+    public final boolean isAliveNextDay(final boolean alive, final int neighborCount) {
+        return 0 != ((alive ? this.survivalMask : this.birthMask) & (1 << neighborCount));
+    }
+
+    @Override
+    public final boolean equals(final Object other) {
+        if (!(other instanceof GameOfLifeRule)) {
+            return false;
+        }
+        final GameOfLifeRule rule = (GameOfLifeRule) other;
+        return this.birthMask == rule.birthMask && this.survivalMask == rule.survivalMask;
+    }
+
+    @Override
+    public final int hashCode() {
+        return this.birthMask * 512 + this.survivalMask;
+    }
+
+    /**
+     * Returns the rule in B/S notation.
+     *
+     * @return the rule in B/S notation
+     */
+    @Override
+    public final String toString() {
+        final StringBuilder stringBuilder = new StringBuilder("B");
+        appendCounts(stringBuilder, this.birthMask);
+        stringBuilder.append("/S");
+        appendCounts(stringBuilder, this.survivalMask);
+        return stringBuilder.toString();
+    }
+
+    private static void appendCounts(final StringBuilder stringBuilder, final int mask) {
+        for (int count = 0; count <= 8; count++) {
+            if (0 != (mask & (1 << count))) {
+                stringBuilder.append(count);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,310 @@
+package com.ghidiu.gameoflife;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs the days requested by many sessions on a shared pool of workers, one turn at a time.
+ *
+ * A turn runs days of one session until its slice (its CPU budget per turn) is used up or its request is done, then
+ * the session goes back in line. Each session is charged the time its turns took (its virtual time), and the next
+ * turn goes to a session whose virtual time is within one slice of the smallest: among those, the one with the
+ * earliest deadline. A giant board therefore cannot starve small interactive ones, and deadlines decide the order
+ * among sessions which have had a fair share. Sessions which were idle rejoin at the smallest virtual time, so they
+ * do not bank credit while idle. A single day is never split, so a turn overruns its slice by at most one day.
+ *
+ * Slices and virtual time are measured in CPU time of the worker, so a turn which the operating system preempts is not
+ * charged for the time it waited. Where the JVM cannot measure CPU time per thread, elapsed time is used instead.
+ *
+ * Every request ends: once its days have been run, or with a failure if a day throws, its session is cancelled or the
+ * scheduler is closed. A worker survives a day which throws.
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeScheduler implements Closeable {
+
+    // Measures the CPU time of the workers
+    private final static ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private final static boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+
+    // Guards the scheduling state of every session
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = this.lock.newCondition();
+
+    // The sessions with requests which are not on a worker
+    private final List<GameOfLifeSession> waiting = new ArrayList<>();
+
+    // Whether the workers should stop
+    private boolean closed;
+
+
+    /**
+     * Creates a scheduler and starts its workers.
+     *
+     * @param workerCount the number of workers
+     */
+    public GameOfLifeScheduler(final int workerCount) {
+        for (int i = 0; i < workerCount; i++) {
+            final Thread worker = new Thread(this::work, "gameoflife-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Requests days for a session.
+     *
+     * @param session the session
+     * @param generations the number of days to run
+     * @param deadlineNanos the time by which the days should be done (see {@link System#nanoTime()})
+     * @return the request, which can be waited on
+     * @throws IllegalStateException if the session was cancelled or the scheduler is closed
+     */
+    public final GameOfLifeSession.StepRequest submit(final GameOfLifeSession session, final long generations, final long deadlineNanos) {
+        final GameOfLifeSession.StepRequest request = new GameOfLifeSession.StepRequest(generations, System.nanoTime(), deadlineNanos);
+        if (generations <= 0) {
+            request.complete();
+            return request;
+        }
+
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                throw new IllegalStateException("scheduler is closed");
+            }
+            if (session.cancelled) {
+                throw new IllegalStateException("session " + session.getId() + " is closed");
+            }
+
+            final boolean idle = session.requests.isEmpty() && !session.running;
+            session.requests.addLast(request);
+            if (idle) {
+                // Rejoin at the front of the virtual clock, without credit for the idle time
+                session.virtualNanos = Math.max(session.virtualNanos, minimumVirtualNanos());
+                this.waiting.add(session);
+                this.ready.signal();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        return request;
+    }
+
+    /**
+     * Gets the statistics of a session.
+     *
+     * @param session the session
+     * @return the formatted statistics
+     */
+    public final String getStatistics(final GameOfLifeSession session) {
+        this.lock.lock();
+        try {
+            return session.formatStatistics();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels a session: its requests fail, and it takes no new ones. A turn it is taking ends with its slice.
+     *
+     * @param session the session
+     */
+    public final void cancel(final GameOfLifeSession session) {
+        final List<GameOfLifeSession.StepRequest> cancelled;
+        this.lock.lock();
+        try {
+            session.cancelled = true;
+            this.waiting.remove(session);
+            cancelled = drain(session);
+        } finally {
+            this.lock.unlock();
+        }
+
+        fail(cancelled, "session " + session.getId() + " is closed");
+    }
+
+    /**
+     * Stops the workers once they finish their current turns. Waiting requests fail.
+     */
+    @Override
+    public final void close() {
+        final List<GameOfLifeSession.StepRequest> cancelled = new ArrayList<>();
+        this.lock.lock();
+        try {
+            this.closed = true;
+            for (final GameOfLifeSession session : this.waiting) {
+                cancelled.addAll(drain(session));
+            }
+            this.waiting.clear();
+            this.ready.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+
+        fail(cancelled, "scheduler is closed");
+    }
+
+    /**
+     * Takes turns until the scheduler is closed.
+     */
+    private void work() {
+        while (true) {
+            final GameOfLifeSession session;
+            final GameOfLifeSession.StepRequest request;
+            final long remaining;
+
+            this.lock.lock();
+            try {
+                while (!this.closed && this.waiting.isEmpty()) {
+                    this.ready.awaitUninterruptibly();
+                }
+                if (this.closed) {
+                    return;
+                }
+
+                session = pick();
+                session.running = true;
+                request = session.requests.peekFirst();
+                session.recordStart(request, System.nanoTime());
+                remaining = session.getRemaining(request);
+            } finally {
+                this.lock.unlock();
+            }
+
+            // Run days until the slice is used up. CPU time never runs ahead of elapsed time, so the cheaper clock
+            // decides until it says the slice could be over
+            final long start = System.nanoTime();
+            final long startCpu = cpuNanos();
+            final long slice = session.getSliceNanos();
+            long generations = 0;
+            long now = start;
+            Throwable failure = null;
+            try {
+                while (generations < remaining && (now - start < slice || cpuNanos() - startCpu < slice)) {
+                    session.getGame().runDay();
+                    generations++;
+                    now = System.nanoTime();
+                }
+            } catch (final Throwable t) {
+                // Fails the request rather than the worker
+                failure = t;
+            } finally {
+                turnEnded(session, request, generations, cpuNanos() - startCpu, System.nanoTime(), failure);
+            }
+        }
+    }
+
+    /**
+     * Records a turn, and puts its session back in line if it has more to do; the request ends if it is done or
+     * failed. The session is not put back in line if it was cancelled, or if the scheduler was closed, in which case
+     * its requests fail.
+     */
+    private void turnEnded(final GameOfLifeSession session, final GameOfLifeSession.StepRequest request, final long generations,
+                           final long cpuNanos, final long end, final Throwable failure) {
+        final boolean done;
+        List<GameOfLifeSession.StepRequest> cancelled = null;
+        this.lock.lock();
+        try {
+            final boolean finished = session.recordSlice(request, generations, cpuNanos);
+            if (session.cancelled) {
+                // The request was failed (and counted) when the session was cancelled during the turn
+                done = false;
+            } else {
+                done = finished && null == failure;
+                if (done) {
+                    session.recordCompletion(request, end);
+                    session.requests.remove(request);
+                } else if (null != failure) {
+                    session.recordFailure();
+                    session.requests.remove(request);
+                }
+            }
+            session.running = false;
+
+            if (this.closed) {
+                cancelled = drain(session);
+            } else if (!session.requests.isEmpty()) {
+                this.waiting.add(session);
+                this.ready.signal();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (null != failure) {
+            request.fail("day failed: " + failure);
+        } else if (done) {
+            request.complete();
+        }
+        if (null != cancelled) {
+            fail(cancelled, "scheduler is closed");
+        }
+    }
+
+    /**
+     * Gets the CPU time of the current thread, or the elapsed time if it cannot be measured.
+     */
+    private static long cpuNanos() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Removes the requests of a session, counting them as failed. Must hold the lock.
+     *
+     * @return the removed requests, which should be failed once the lock is released
+     */
+    private static List<GameOfLifeSession.StepRequest> drain(final GameOfLifeSession session) {
+        final List<GameOfLifeSession.StepRequest> requests = new ArrayList<>(session.requests);
+        for (int i = 0; i < requests.size(); i++) {
+            session.recordFailure();
+        }
+        session.requests.clear();
+        return requests;
+    }
+
+    private static void fail(final List<GameOfLifeSession.StepRequest> requests, final String reason) {
+        for (final GameOfLifeSession.StepRequest request : requests) {
+            request.fail(reason);
+        }
+    }
+
+    /**
+     * Removes and returns the next session to get a turn: the earliest deadline among the sessions within one slice
+     * of the smallest virtual time.
+     */
+    private GameOfLifeSession pick() {
+        final long minimum = minimumVirtualNanos();
+
+        GameOfLifeSession best = null;
+        for (final GameOfLifeSession candidate : this.waiting) {
+            if (candidate.virtualNanos - minimum > candidate.getSliceNanos()) {
+                continue;
+            }
+            if (null == best || candidate.requests.peekFirst().getDeadlineNanos() - best.requests.peekFirst().getDeadlineNanos() < 0) {
+                best = candidate;
+            }
+        }
+
+        this.waiting.remove(best);
+        return best;
+    }
+
+    /**
+     * Gets the smallest virtual time of the waiting sessions (0 if none are waiting).
+     */
+    private long minimumVirtualNanos() {
+        long minimum = Long.MAX_VALUE;
+        for (final GameOfLifeSession session : this.waiting) {
+            minimum = Math.min(minimum, session.virtualNanos);
+        }
+        return Long.MAX_VALUE == minimum ? 0 : minimum;
+    }
+
+}
@@ -0,0 +1,451 @@
+package com.ghidiu.gameoflife;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A server which hosts many games for clients on the local host. Clients send one command per line, and every
+ * response starts with "OK" or "ERROR":
+ *
+ * <pre>
+ * CREATE rows columns [engine [sliceMillis]]   OK id                      (sliceMillis: CPU time per turn)
+ * SEED id row column [row column ...]          OK population
+ * STEP id days [deadlineMillis]                OK day                     (once the days have been run)
+ * QUERY id [row column rows columns]           OK day population boundingBox
+ * SNAPSHOT id [row column rows columns]        OK rows columns, then one line of X and O per row
+ * STATS [id]                                   OK, then one line of statistics per session
+ * CLOSE id                                     OK
+ * QUIT                                         OK, then the connection is closed
+ * </pre>
+ *
+ * Days are run by a {@link GameOfLifeScheduler}, so that many clients share the workers fairly. Only the client which
+ * created a session may SEED, STEP or CLOSE it; any client may QUERY, SNAPSHOT or STATS it. The sessions a client
+ * created are closed when it quits or disconnects (including closing only its output), which also abandons their
+ * steps, so a client must keep its connection open until it has read its responses.
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeServer implements Closeable {
+
+    // The default CPU time of a turn of a session on a worker
+    public final static long DEFAULT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    // The most CPU time a session may ask for per turn
+    private final static int MAXIMUM_SLICE_MILLIS = 1000;
+
+    // The default limit on the cells of one board
+    public final static long DEFAULT_MAXIMUM_CELLS = 1L << 26;
+
+    // The deadline of steps which do not give one; late enough to be scheduled after every step which does
+    private final static long NO_DEADLINE_NANOS = TimeUnit.DAYS.toNanos(1);
+
+    // Queued by the reader of a connection once the client has gone (compared by identity)
+    private final static String DISCONNECTED = new String("DISCONNECTED");
+
+    // The socket clients connect to
+    private final ServerSocket serverSocket;
+
+    // The scheduler of days
+    private final GameOfLifeScheduler scheduler;
+
+    // The CPU time of a turn on a worker of a session which does not ask for its own
+    private final long sliceNanos;
+
+    // The most cells a board may have
+    private final long maximumCells;
+
+    // The sessions, by identifier
+    private final Map<Integer, GameOfLifeSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args the port (default 4242), the number of workers (default one per processor) and the most cells a board
+     *             may have (default {@link #DEFAULT_MAXIMUM_CELLS})
+     * @throws IOException if the port cannot be bound
+     */
+    public final static void main(final String[] args) throws IOException {
+        final int port = args.length > 0 ? Integer.parseInt(args[0]) : 4242;
+        final int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final long maximumCells = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_MAXIMUM_CELLS;
+
+        final GameOfLifeServer server = new GameOfLifeServer(port, workers, DEFAULT_SLICE_NANOS, maximumCells);
+        System.out.println("Listening on " + server.getPort() + " with " + workers + " workers");
+        server.serve();
+    }
+
+    /**
+     * Creates a server listening on the loopback address. Call {@link #serve()} or {@link #start()} to accept clients.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @param workers the number of workers which run days
+     * @param sliceNanos the most CPU time a turn of a session on a worker may take, unless the session asks for its own
+     * @throws IOException if the port cannot be bound
+     */
+    public GameOfLifeServer(final int port, final int workers, final long sliceNanos) throws IOException {
+        this(port, workers, sliceNanos, DEFAULT_MAXIMUM_CELLS);
+    }
+
+    /**
+     * Creates a server listening on the loopback address. Call {@link #serve()} or {@link #start()} to accept clients.
+     *
+     * @param port the port to listen on, or 0 for any free port
+     * @param workers the number of workers which run days
+     * @param sliceNanos the most CPU time a turn of a session on a worker may take, unless the session asks for its own
+     * @param maximumCells the most cells a board may have
+     * @throws IOException if the port cannot be bound
+     */
+    public GameOfLifeServer(final int port, final int workers, final long sliceNanos, final long maximumCells) throws IOException {
+        if (maximumCells <= 0) {
+            throw new IllegalArgumentException("maximumCells must be positive");
+        }
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.scheduler = new GameOfLifeScheduler(workers);
+        this.sliceNanos = sliceNanos;
+        this.maximumCells = maximumCells;
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return the port
+     */
+    public final int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts clients on a background thread.
+     */
+    public final void start() {
+        final Thread acceptor = new Thread(this::serve, "gameoflife-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Accepts clients until the server is closed, serving each on its own thread.
+     */
+    public final void serve() {
+        while (!this.serverSocket.isClosed()) {
+            final Socket socket;
+            try {
+                socket = this.serverSocket.accept();
+            } catch (final IOException e) {
+                // Closed
+                return;
+            }
+
+            final Thread connection = new Thread(() -> serve(socket), "gameoflife-client-" + socket.getPort());
+            connection.setDaemon(true);
+            connection.start();
+        }
+    }
+
+    /**
+     * Stops accepting clients and stops the workers.
+     */
+    @Override
+    public final void close() throws IOException {
+        this.serverSocket.close();
+        this.scheduler.close();
+    }
+
+    /**
+     * Serves one client until it quits or disconnects. Commands are run on this thread while another reads them, so
+     * that a client which disconnects during a step is noticed, and the step abandoned, without waiting for it.
+     */
+    private void serve(final Socket socket) {
+        final Set<Integer> owned = ConcurrentHashMap.newKeySet();
+        final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+        final Thread reader = new Thread(() -> read(socket, lines, owned), Thread.currentThread().getName() + "-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        try (Socket client = socket;
+             PrintWriter writer = new PrintWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.US_ASCII))) {
+            for (String line = lines.take(); DISCONNECTED != line; line = lines.take()) {
+                handle(line, writer, owned);
+                if ("QUIT".equalsIgnoreCase(line.trim())) {
+                    return;
+                }
+            }
+        } catch (final IOException | InterruptedException e) {
+            // Disconnected
+        } finally {
+            closeSessions(owned);
+        }
+    }
+
+    /**
+     * Queues the commands of a client until it disconnects, then closes its sessions.
+     */
+    private void read(final Socket socket, final BlockingQueue<String> lines, final Set<Integer> owned) {
+        try {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            for (String line = reader.readLine(); null != line; line = reader.readLine()) {
+                lines.add(line);
+            }
+        } catch (final IOException e) {
+            // Disconnected, or closed after QUIT
+        }
+
+        // Abandon whatever the client was waiting for; nobody will read the responses
+        lines.clear();
+        lines.add(DISCONNECTED);
+        closeSessions(owned);
+    }
+
+    /**
+     * Closes sessions, failing their steps.
+     */
+    private void closeSessions(final Set<Integer> ids) {
+        for (final Integer id : ids) {
+            ids.remove(id);
+            final GameOfLifeSession session = this.sessions.remove(id);
+            if (null != session) {
+                this.scheduler.cancel(session);
+            }
+        }
+    }
+
+    /**
+     * Runs one command, writing its response.
+     *
+     * @param line the command
+     * @param out the writer of the response
+     * @param owned the sessions created by the client, which are closed when it goes
+     */
+    final void handle(final String line, final PrintWriter out, final Set<Integer> owned) {
+        final String[] words = line.trim().split("\\s+");
+
+        try {
+            switch (words[0].toUpperCase()) {
+                case "CREATE":
+                    create(words, out, owned);
+                    break;
+                case "SEED":
+                    seed(words, out, owned);
+                    break;
+                case "STEP":
+                    step(words, out, owned);
+                    break;
+                case "QUERY":
+                    query(words, out);
+                    break;
+                case "SNAPSHOT":
+                    snapshot(words, out);
+                    break;
+                case "STATS":
+                    stats(words, out);
+                    break;
+                case "CLOSE":
+                    close(words, out, owned);
+                    break;
+                case "QUIT":
+                    closeSessions(owned);
+                    out.print("OK\n");
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown command '" + words[0] + "'");
+            }
+        } catch (final IllegalArgumentException | IllegalStateException e) {
+            // Includes NumberFormatException
+            out.print("ERROR " + e.getMessage() + "\n");
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            out.print("ERROR interrupted\n");
+        } catch (final RuntimeException e) {
+            // A failure of the server rather than of the command; the connection survives it
+            out.print("ERROR " + e + "\n");
+        } catch (final OutOfMemoryError e) {
+            out.print("ERROR out of memory\n");
+        }
+        out.flush();
+    }
+
+    private void create(final String[] words, final PrintWriter out, final Set<Integer> owned) {
+        checkArguments(words, 3, 5);
+        final int rows = parsePositive(words[1]);
+        final int columns = parsePositive(words[2]);
+        final String engine = words.length > 3 ? words[3].toLowerCase() : GameOfLifeEngines.DEFAULT;
+        final long sliceNanos = words.length > 4 ? TimeUnit.MILLISECONDS.toNanos(parsePositive(words[4])) : this.sliceNanos;
+        if (sliceNanos > TimeUnit.MILLISECONDS.toNanos(MAXIMUM_SLICE_MILLIS)) {
+            throw new IllegalArgumentException("a turn may take at most " + MAXIMUM_SLICE_MILLIS + " milliseconds");
+        }
+        if ((long) rows * columns > this.maximumCells) {
+            throw new IllegalArgumentException("a board may have at most " + this.maximumCells + " cells");
+        }
+
+        final int id = this.nextId.getAndIncrement();
+        this.sessions.put(id, new GameOfLifeSession(id, new GameOfLife(rows, columns, engine), sliceNanos));
+        owned.add(id);
+        out.print("OK " + id + "\n");
+    }
+
+    private void seed(final String[] words, final PrintWriter out, final Set<Integer> owned) {
+        if (words.length < 4 || 0 != words.length % 2) {
+            throw new IllegalArgumentException("expected SEED id row column [row column ...]");
+        }
+        final GameOfLifeSession session = getOwnedSession(words, owned);
+
+        final GameOfLife gol = session.getGame();
+        final GameOfLifeView board = gol.snapshot();
+        final int[] cells = new int[words.length - 2];
+        for (int i = 0; i < cells.length; i += 2) {
+            cells[i] = parseCoordinate(words[i + 2], board.getRows());
+            cells[i + 1] = parseCoordinate(words[i + 3], board.getColumns());
+        }
+        gol.addLife(cells);
+        out.print("OK " + gol.population() + "\n");
+    }
+
+    private void step(final String[] words, final PrintWriter out, final Set<Integer> owned) throws InterruptedException {
+        checkArguments(words, 3, 4);
+        final GameOfLifeSession session = getOwnedSession(words, owned);
+        final long days = Long.parseLong(words[2]);
+        if (days < 0) {
+            throw new IllegalArgumentException("days must not be negative");
+        }
+        final long deadline = 4 == words.length ? TimeUnit.MILLISECONDS.toNanos(Long.parseLong(words[3])) : NO_DEADLINE_NANOS;
+
+        this.scheduler.submit(session, days, System.nanoTime() + deadline).await();
+        out.print("OK " + session.getGame().getDay() + "\n");
+    }
+
+    private void query(final String[] words, final PrintWriter out) {
+        checkArguments(words, 2, 6);
+        final GameOfLifeSession session = getSession(words);
+        final GameOfLifeRegion region = parseRegion(words);
+
+        // Query a single generation, so that the answers agree with each other
+        final GameOfLifeGeneration generation = session.getGame().getGeneration();
+        final long population = null == region ? generation.population() : generation.population(region);
+        final GameOfLifeRegion boundingBox = generation.boundingBox();
+        out.print("OK " + generation.getDay() + " " + population + " " + (null == boundingBox ? "none" : boundingBox) + "\n");
+    }
+
+    private void snapshot(final String[] words, final PrintWriter out) {
+        checkArguments(words, 2, 6);
+        final GameOfLifeSession session = getSession(words);
+        final GameOfLifeRegion region = parseRegion(words);
+
+        final GameOfLifeView view = null == region ? session.getGame().snapshot() : session.getGame().viewport(region);
+
+        out.print("OK " + view.getRows() + " " + view.getColumns() + "\n");
+        for (int row = 0; row < view.getRows(); row++) {
+            final StringBuilder stringBuilder = new StringBuilder(view.getColumns() + 1);
+            for (int column = 0; column < view.getColumns(); column++) {
+                stringBuilder.append(view.getLife(row, column) ? 'X' : 'O');
+            }
+            out.print(stringBuilder.append('\n'));
+        }
+    }
+
+    private void close(final String[] words, final PrintWriter out, final Set<Integer> owned) {
+        checkArguments(words, 2, 2);
+        final GameOfLifeSession session = getOwnedSession(words, owned);
+        this.sessions.remove(session.getId());
+        owned.remove(session.getId());
+        this.scheduler.cancel(session);
+        out.print("OK\n");
+    }
+
+    private void stats(final String[] words, final PrintWriter out) {
+        checkArguments(words, 1, 2);
+        if (2 == words.length) {
+            final GameOfLifeSession session = getSession(words);
+            out.print("OK 1\n" + this.scheduler.getStatistics(session) + "\n");
+            return;
+        }
+
+        final StringBuilder stringBuilder = new StringBuilder();
+        int count = 0;
+        for (final GameOfLifeSession session : this.sessions.values()) {
+            stringBuilder.append(this.scheduler.getStatistics(session)).append('\n');
+            count++;
+        }
+        out.print("OK " + count + "\n" + stringBuilder);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // PARSING
+    ////////////////////////////////////////////////////////////////////////////
+
+    private static void checkArguments(final String[] words, final int minimum, final int maximum) {
+        if (words.length < minimum || words.length > maximum) {
+            throw new IllegalArgumentException("wrong number of arguments to " + words[0].toUpperCase());
+        }
+    }
+
+    private GameOfLifeSession getSession(final String[] words) {
+        if (words.length < 2) {
+            throw new IllegalArgumentException("expected a session");
+        }
+        final GameOfLifeSession session = this.sessions.get(Integer.parseInt(words[1]));
+        if (null == session) {
+            throw new IllegalArgumentException("no session " + words[1]);
+        }
+        return session;
+    }
+
+    /**
+     * Gets a session which the client created, for commands which change it.
+     */
+    private GameOfLifeSession getOwnedSession(final String[] words, final Set<Integer> owned) {
+        final GameOfLifeSession session = getSession(words);
+        if (!owned.contains(session.getId())) {
+            throw new IllegalArgumentException("session " + session.getId() + " belongs to another client");
+        }
+        return session;
+    }
+
+    /**
+     * Parses the optional region after the session, or returns null if there is none.
+     */
+    private static GameOfLifeRegion parseRegion(final String[] words) {
+        if (2 == words.length) {
+            return null;
+        }
+        if (6 != words.length) {
+            throw new IllegalArgumentException("expected a region of row column rows columns");
+        }
+        return new GameOfLifeRegion(Integer.parseInt(words[2]), Integer.parseInt(words[3]), parsePositive(words[4]), parsePositive(words[5]));
+    }
+
+    private static int parsePositive(final String word) {
+        final int value = Integer.parseInt(word);
+        if (value <= 0) {
+            throw new IllegalArgumentException("'" + word + "' must be positive");
+        }
+        return value;
+    }
+
+    private static int parseCoordinate(final String word, final int limit) {
+        final int value = Integer.parseInt(word);
+        if (value < 0 || value >= limit) {
+            throw new IllegalArgumentException("'" + word + "' is off the board");
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,260 @@
+package com.ghidiu.gameoflife;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A game hosted by a {@link GameOfLifeServer}, with the step requests waiting for the {@link GameOfLifeScheduler}
+ * and the statistics of its scheduling.
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeSession {
+
+    /**
+     * A request to run a number of days.
+     */
+    public final static class StepRequest {
+
+        // The request
+        private final long generations;
+        private final long submittedNanos;
+        private final long deadlineNanos;
+
+        // Progress (guarded by the scheduler)
+        private long remaining;
+        private boolean started;
+
+        // Whether the request has ended, and why it failed (null if every day was run)
+        private boolean done;
+        private String failure;
+
+
+        StepRequest(final long generations, final long submittedNanos, final long deadlineNanos) {
+            this.generations = generations;
+            this.remaining = generations;
+            this.submittedNanos = submittedNanos;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Gets the number of days requested.
+         *
+         * @return the number of days
+         */
+        public final long getGenerations() {
+            return this.generations;
+        }
+
+        /**
+         * Gets the time by which the request should be done (see {@link System#nanoTime()}).
+         *
+         * @return the deadline
+         */
+        public final long getDeadlineNanos() {
+            return this.deadlineNanos;
+        }
+
+        /**
+         * Determines if the request has ended, either because every requested day has been run or because it failed.
+         *
+         * @return true if the request is done; false otherwise
+         */
+        public final synchronized boolean isDone() {
+            return this.done;
+        }
+
+        /**
+         * Gets the reason the request failed.
+         *
+         * @return the reason, or null if the request has not failed
+         */
+        public final synchronized String getFailure() {
+            return this.failure;
+        }
+
+        /**
+         * Waits until every requested day has been run.
+         *
+         * @throws InterruptedException if interrupted while waiting
+         * @throws IllegalStateException if the request failed (for example, because its session was closed)
+         */
+        public final synchronized void await() throws InterruptedException {
+            while (!this.done) {
+                wait();
+            }
+            if (null != this.failure) {
+                throw new IllegalStateException(this.failure);
+            }
+        }
+
+        /**
+         * Ends the request successfully, unless it has already ended.
+         */
+        final synchronized void complete() {
+            if (!this.done) {
+                this.done = true;
+                notifyAll();
+            }
+        }
+
+        /**
+         * Ends the request with a failure, unless it has already ended.
+         *
+         * @param reason the reason the request failed
+         */
+        final synchronized void fail(final String reason) {
+            if (!this.done) {
+                this.done = true;
+                this.failure = reason;
+                notifyAll();
+            }
+        }
+
+    }
+
+
+    // The identifier of the session
+    private final int id;
+
+    // The game
+    private final GameOfLife game;
+
+    // The most CPU time a turn on a worker may take before other sessions get a turn
+    private final long sliceNanos;
+
+    // Scheduling state (guarded by the scheduler)
+    final Deque<StepRequest> requests = new ArrayDeque<>();
+    long virtualNanos;
+    boolean running;
+    boolean cancelled;
+
+    // Statistics (guarded by the scheduler)
+    private long generations;
+    private long cpuNanos;
+    private long startedRequests;
+    private long completedRequests;
+    private long failedRequests;
+    private long missedDeadlines;
+    private long totalQueueNanos;
+    private long maximumQueueNanos;
+    private long slices;
+
+
+    /**
+     * Creates a session.
+     *
+     * @param id the identifier of the session
+     * @param game the game to host
+     * @param sliceNanos the most CPU time a turn on a worker may take
+     */
+    public GameOfLifeSession(final int id, final GameOfLife game, final long sliceNanos) {
+        this.id = id;
+        this.game = game;
+        this.sliceNanos = sliceNanos;
+    }
+
+    /**
+     * Gets the identifier of the session.
+     *
+     * @return the identifier
+     */
+    public final int getId() {
+        return this.id;
+    }
+
+    /**
+     * Gets the game.
+     *
+     * @return the game
+     */
+    public final GameOfLife getGame() {
+        return this.game;
+    }
+
+    /**
+     * Gets the most CPU time a turn on a worker may take.
+     *
+     * @return the slice length in nanoseconds
+     */
+    public final long getSliceNanos() {
+        return this.sliceNanos;
+    }
+
+    /**
+     * Records that a request had its first turn.
+     *
+     * @param request the request
+     * @param nowNanos the start of the turn
+     */
+    final void recordStart(final StepRequest request, final long nowNanos) {
+        if (!request.started) {
+            request.started = true;
+            this.startedRequests++;
+            final long queueNanos = nowNanos - request.submittedNanos;
+            this.totalQueueNanos += queueNanos;
+            this.maximumQueueNanos = Math.max(this.maximumQueueNanos, queueNanos);
+        }
+    }
+
+    /**
+     * Records a turn.
+     *
+     * @param request the request the turn worked on
+     * @param generations the number of days run
+     * @param cpuNanos the CPU time of the turn
+     * @return true if every requested day has been run
+     */
+    final boolean recordSlice(final StepRequest request, final long generations, final long cpuNanos) {
+        this.slices++;
+        this.generations += generations;
+        this.cpuNanos += cpuNanos;
+        this.virtualNanos += cpuNanos;
+
+        request.remaining -= generations;
+        return request.remaining <= 0;
+    }
+
+    /**
+     * Records that a request completed.
+     *
+     * @param request the request
+     * @param endNanos the end of its last turn
+     */
+    final void recordCompletion(final StepRequest request, final long endNanos) {
+        this.completedRequests++;
+        if (endNanos - request.deadlineNanos > 0) {
+            this.missedDeadlines++;
+        }
+    }
+
+    /**
+     * Records that a request failed.
+     */
+    final void recordFailure() {
+        this.failedRequests++;
+    }
+
+    /**
+     * Gets the remaining days of a request.
+     */
+    final long getRemaining(final StepRequest request) {
+        return request.remaining;
+    }
+
+    /**
+     * Returns the statistics of the session on one line.
+     *
+     * @return the formatted statistics
+     */
+    final String formatStatistics() {
+        final double cpuSeconds = this.cpuNanos / 1e9;
+        return String.format("session=%d generations=%d cpuMillis=%.3f generationsPerCpuSecond=%.1f slices=%d requests=%d "
+                        + "failed=%d pending=%d missedDeadlines=%d queueMillisMean=%.3f queueMillisMax=%.3f",
+                this.id, this.generations, this.cpuNanos / 1e6, 0 == this.cpuNanos ? 0.0 : this.generations / cpuSeconds,
+                this.slices, this.completedRequests, this.failedRequests, this.requests.size(), this.missedDeadlines,
+                0 == this.startedRequests ? 0.0 : this.totalQueueNanos / 1e6 / this.startedRequests,
+                this.maximumQueueNanos / 1e6);
+    }
+
+}
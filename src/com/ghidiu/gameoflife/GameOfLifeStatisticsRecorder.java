@@ -0,0 +1,248 @@
+package com.ghidiu.gameoflife;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Records the statistics of each generation of a game to a time series: the population, births, deaths, area of the
+ * bounding box and activity (see {@link GameOfLifeGeneration}). The statistics are found while each day is run, so
+ * recording costs a few bytes per generation rather than a pass over the board.
+ *
+ * Generations may be downsampled into windows of consecutive generations, recording the minimum, maximum and mean of
+ * each statistic over the window; a window of 1 records each generation as it is.
+ *
+ * Formats:
+ * <ul>
+ * <li>{@link Format#CSV}: a header line, then a line per generation (or window). Windows are recorded as the first
+ * generation and the number of generations, then the minimum, maximum and mean of each statistic.</li>
+ * <li>{@link Format#BINARY}: the header "GOLS", then the int version (2), window and number of statistics; each record
+ * is the long first generation, then (for windows) the int number of generations, then each statistic (or for
+ * windows, its minimum, maximum and mean). Counts, and their minimums and maximums, are longs, so that they stay exact
+ * on any board; means and the activity are floats. All values are big-endian.</li>
+ * </ul>
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeStatisticsRecorder implements Closeable {
+
+    /**
+     * The file formats.
+     */
+    public enum Format {
+        CSV,
+        BINARY
+    }
+
+    // The binary format header
+    final static byte[] BINARY_MAGIC = {'G', 'O', 'L', 'S'};
+    final static int BINARY_VERSION = 2;
+
+    // The names of the statistics, in the order they are recorded
+    final static String[] STATISTICS = {"population", "births", "deaths", "boundingBoxArea", "activity"};
+
+    // The output
+    private final DataOutputStream out;
+    private final Format format;
+
+    // The number of generations per record
+    private final int window;
+
+    // The window being accumulated; doubles hold every count exactly, as no board has 2^53 cells
+    private final double[] minimums = new double[STATISTICS.length];
+    private final double[] maximums = new double[STATISTICS.length];
+    private final double[] sums = new double[STATISTICS.length];
+    private final double[] values = new double[STATISTICS.length];
+    private long firstGeneration;
+    private int count;
+
+    // The number of records written
+    private long records;
+
+
+    /**
+     * Creates a recorder, writing the header.
+     *
+     * @param path the file to write
+     * @param format the file format
+     * @param window the number of consecutive generations to combine into each record
+     * @throws IOException if the file cannot be written
+     */
+    public GameOfLifeStatisticsRecorder(final Path path, final Format format, final int window) throws IOException {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        this.format = format;
+        this.window = window;
+
+        if (Format.BINARY == format) {
+            this.out.write(BINARY_MAGIC);
+            this.out.writeInt(BINARY_VERSION);
+            this.out.writeInt(window);
+            this.out.writeInt(STATISTICS.length);
+        } else {
+            final StringBuilder header = new StringBuilder("generation");
+            if (1 == window) {
+                for (final String statistic : STATISTICS) {
+                    header.append(',').append(statistic);
+                }
+            } else {
+                header.append(",generations");
+                for (final String statistic : STATISTICS) {
+                    header.append(',').append(statistic).append("Min,").append(statistic).append("Max,").append(statistic).append("Mean");
+                }
+            }
+            writeLine(header);
+        }
+    }
+
+    /**
+     * Records the statistics of a generation. Generations are expected in order.
+     *
+     * @param generation the generation
+     * @throws IOException if the file cannot be written
+     */
+    public final void record(final GameOfLifeGeneration generation) throws IOException {
+        this.values[0] = generation.population();
+        this.values[1] = generation.getBirths();
+        this.values[2] = generation.getDeaths();
+        this.values[3] = generation.getBoundingBoxArea();
+        this.values[4] = generation.getActivity();
+
+        if (1 == this.window) {
+            writeRecord(generation.getDay(), 1, this.values, this.values, this.values);
+            return;
+        }
+
+        if (0 == this.count) {
+            this.firstGeneration = generation.getDay();
+            System.arraycopy(this.values, 0, this.minimums, 0, this.values.length);
+            System.arraycopy(this.values, 0, this.maximums, 0, this.values.length);
+            System.arraycopy(this.values, 0, this.sums, 0, this.values.length);
+        } else {
+            for (int i = 0; i < this.values.length; i++) {
+                this.minimums[i] = Math.min(this.minimums[i], this.values[i]);
+                this.maximums[i] = Math.max(this.maximums[i], this.values[i]);
+                this.sums[i] += this.values[i];
+            }
+        }
+
+        if (++this.count == this.window) {
+            flushWindow();
+        }
+    }
+
+    /**
+     * Gets the number of records written so far; a partial window is only written when the recorder is closed.
+     *
+     * @return the number of records
+     */
+    public final long getRecords() {
+        return this.records;
+    }
+
+    /**
+     * Records the partial window (if any), and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public final void close() throws IOException {
+        try {
+            if (0 != this.count) {
+                flushWindow();
+            }
+        } finally {
+            this.out.close();
+        }
+    }
+
+    private void flushWindow() throws IOException {
+        for (int i = 0; i < this.sums.length; i++) {
+            this.sums[i] /= this.count;
+        }
+        writeRecord(this.firstGeneration, this.count, this.minimums, this.maximums, this.sums);
+        this.count = 0;
+    }
+
+    /**
+     * Writes a record. For a window of 1, only the minimums are written.
+     */
+    private void writeRecord(final long generation, final int generations, final double[] minimums, final double[] maximums,
+                             final double[] means) throws IOException {
+        this.records++;
+
+        if (Format.BINARY == this.format) {
+            this.out.writeLong(generation);
+            if (1 == this.window) {
+                for (int i = 0; i < minimums.length; i++) {
+                    writeValue(i, minimums[i]);
+                }
+            } else {
+                this.out.writeInt(generations);
+                for (int i = 0; i < minimums.length; i++) {
+                    writeValue(i, minimums[i]);
+                    writeValue(i, maximums[i]);
+                    this.out.writeFloat((float) means[i]);
+                }
+            }
+            return;
+        }
+
+        final StringBuilder line = new StringBuilder(128).append(generation);
+        if (1 == this.window) {
+            for (int i = 0; i < minimums.length; i++) {
+                appendValue(line.append(','), i, minimums[i]);
+            }
+        } else {
+            line.append(',').append(generations);
+            for (int i = 0; i < minimums.length; i++) {
+                appendValue(line.append(','), i, minimums[i]);
+                appendValue(line.append(','), i, maximums[i]);
+                line.append(',').append(means[i]);
+            }
+        }
+        writeLine(line);
+    }
+
+    /**
+     * Writes a value, as a long unless it is the activity.
+     */
+    private void writeValue(final int statistic, final double value) throws IOException {
+        if (isCount(statistic)) {
+            this.out.writeLong((long) value);
+        } else {
+            this.out.writeFloat((float) value);
+        }
+    }
+
+    /**
+     * Appends a value, as a whole number unless it is the activity.
+     */
+    private static void appendValue(final StringBuilder line, final int statistic, final double value) {
+        if (isCount(statistic)) {
+            line.append((long) value);
+        } else {
+            line.append(value);
+        }
+    }
+
+    /**
+     * Determines if a statistic is a count of cells, which is every statistic but the activity.
+     */
+    private static boolean isCount(final int statistic) {
+        return STATISTICS.length - 1 != statistic;
+    }
+
+    private void writeLine(final CharSequence line) throws IOException {
+        this.out.write(line.toString().getBytes(StandardCharsets.US_ASCII));
+        this.out.write('\n');
+    }
+
+}
@@ -0,0 +1,431 @@
+package com.ghidiu.gameoflife;
+
+import java.util.Arrays;
+
+/**
+ * Living cell counts for fixed size square tiles of a board. The counts are maintained by whatever steps the board,
+ * so that region queries only need to look at the cells of tiles which are partially covered. Whatever steps the
+ * board also reports the births and deaths of the day and the extent of life, so that statistics of each day cost no
+ * extra pass over the board.
+ *
+ * Snapshots of an index share each row of tiles whose counts did not change with the previous snapshot, so keeping
+ * many of them costs memory in proportion to the change between them (plus one reference per row of tiles).
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeTileIndex {
+
+    // The width and height of a tile; matches the word size of a packed row
+    public final static int TILE_SIZE = 64;
+    private final static int TILE_SHIFT = 6;
+
+    // The dimensions of the board
+    private final int rows;
+    private final int columns;
+
+    // The dimensions of the tile grid
+    private final int tileRows;
+    private final int tileColumns;
+
+    // The living cell count of each tile, by row of tiles then column
+    private final int[][] counts;
+
+    // The rows of the latest snapshot, which the next snapshot shares where the counts have not changed
+    private int[][] snapshotCounts;
+
+    // The living cell count of the board
+    private long population;
+
+    // The cells born and the cells which died on the day which was counted
+    private long births;
+    private long deaths;
+
+    // The rows and columns which have life, as reported (empty when the first is greater than the last)
+    private int firstRow;
+    private int lastRow;
+    private int firstColumn;
+    private int lastColumn;
+
+
+    /**
+     * Creates an index with no life.
+     *
+     * @param rows the number of rows on the board
+     * @param columns the number of columns on the board
+     */
+    public GameOfLifeTileIndex(final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.tileRows = (rows + TILE_SIZE - 1) >>> TILE_SHIFT;
+        this.tileColumns = (columns + TILE_SIZE - 1) >>> TILE_SHIFT;
+        this.counts = new int[this.tileRows][this.tileColumns];
+        clearExtent();
+    }
+
+    /**
+     * Creates a copy of an index.
+     *
+     * @param index the index to copy
+     */
+    public GameOfLifeTileIndex(final GameOfLifeTileIndex index) {
+        this(index, new int[index.tileRows][]);
+        for (int tileRow = 0; tileRow < this.tileRows; tileRow++) {
+            this.counts[tileRow] = index.counts[tileRow].clone();
+        }
+    }
+
+    /**
+     * Creates an index with the counts of another, but the given rows of tiles.
+     */
+    private GameOfLifeTileIndex(final GameOfLifeTileIndex index, final int[][] counts) {
+        this.rows = index.rows;
+        this.columns = index.columns;
+        this.tileRows = index.tileRows;
+        this.tileColumns = index.tileColumns;
+        this.counts = counts;
+        this.population = index.population;
+        this.births = index.births;
+        this.deaths = index.deaths;
+        this.firstRow = index.firstRow;
+        this.lastRow = index.lastRow;
+        this.firstColumn = index.firstColumn;
+        this.lastColumn = index.lastColumn;
+    }
+
+    /**
+     * Resets every count to zero.
+     */
+    public final void clear() {
+        for (final int[] tileRow : this.counts) {
+            Arrays.fill(tileRow, 0);
+        }
+        this.population = 0;
+        this.births = 0;
+        this.deaths = 0;
+        clearExtent();
+    }
+
+    private void clearExtent() {
+        this.firstRow = Integer.MAX_VALUE;
+        this.lastRow = -1;
+        this.firstColumn = Integer.MAX_VALUE;
+        this.lastColumn = -1;
+    }
+
+    /**
+     * Takes a snapshot of the index, which shares each row of tiles whose counts have not changed since the previous
+     * snapshot. The snapshot must not be changed.
+     *
+     * @return the snapshot
+     */
+    final GameOfLifeTileIndex snapshot() {
+        final int[][] counts = new int[this.tileRows][];
+        for (int tileRow = 0; tileRow < this.tileRows; tileRow++) {
+            if (null != this.snapshotCounts && Arrays.equals(this.counts[tileRow], this.snapshotCounts[tileRow])) {
+                counts[tileRow] = this.snapshotCounts[tileRow];
+            } else {
+                counts[tileRow] = this.counts[tileRow].clone();
+            }
+        }
+        this.snapshotCounts = counts;
+        return new GameOfLifeTileIndex(this, counts);
+    }
+
+    /**
+     * Counts the rows of tiles which are shared with another index.
+     *
+     * @param index the other index, which must have the same dimensions
+     * @return the number of rows of tiles held by both indexes
+     */
+    final int getSharedTileRowCount(final GameOfLifeTileIndex index) {
+        int count = 0;
+        for (int tileRow = 0; tileRow < this.tileRows; tileRow++) {
+            if (this.counts[tileRow] == index.counts[tileRow]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts a living cell, including it in the extent of life.
+     *
+     * @param row the row coordinate of the cell
+     * @param column the column coordinate of the cell
+     */
+    public final void add(final int row, final int column) {
+        this.counts[row >>> TILE_SHIFT][column >>> TILE_SHIFT]++;
+        this.population++;
+        addExtent(row, column, column);
+    }
+
+    /**
+     * Includes living cells of a row in the extent of life. Whatever counts cells with
+     * {@link #addToTile(int, int, int)} reports their extent with this.
+     *
+     * @param row the row coordinate of the cells
+     * @param firstColumn the column coordinate of the first of the cells
+     * @param lastColumn the column coordinate of the last of the cells
+     */
+    public final void addExtent(final int row, final int firstColumn, final int lastColumn) {
+        this.firstRow = Math.min(this.firstRow, row);
+        this.lastRow = Math.max(this.lastRow, row);
+        this.firstColumn = Math.min(this.firstColumn, firstColumn);
+        this.lastColumn = Math.max(this.lastColumn, lastColumn);
+    }
+
+    /**
+     * Includes the living cells of a packed word in the extent of life (see {@link GameOfLifeMapUtil#pack(boolean[][])}).
+     *
+     * @param row the row coordinate of the word
+     * @param word the index of the word in its row
+     * @param bits the word, which must not be zero
+     */
+    public final void addWordExtent(final int row, final int word, final long bits) {
+        addExtent(row, (word << 6) + Long.numberOfTrailingZeros(bits), (word << 6) + 63 - Long.numberOfLeadingZeros(bits));
+    }
+
+    /**
+     * Counts the cells born and the cells which died on the day being counted.
+     *
+     * @param births the number of cells born
+     * @param deaths the number of cells which died
+     */
+    public final void addChanges(final long births, final long deaths) {
+        this.births += births;
+        this.deaths += deaths;
+    }
+
+    /**
+     * Counts several living cells in one tile. Their extent is reported separately (see
+     * {@link #addExtent(int, int, int)}).
+     *
+     * @param tileRow the row coordinate of the tile
+     * @param tileColumn the column coordinate of the tile
+     * @param count the number of living cells
+     */
+    public final void addToTile(final int tileRow, final int tileColumn, final int count) {
+        this.counts[tileRow][tileColumn] += count;
+        this.population += count;
+    }
+
+    /**
+     * Gets the living cell count of the board.
+     *
+     * @return the number of living cells
+     */
+    public final long getPopulation() {
+        return this.population;
+    }
+
+    /**
+     * Gets the number of cells born on the day which was counted.
+     *
+     * @return the number of cells born
+     */
+    public final long getBirths() {
+        return this.births;
+    }
+
+    /**
+     * Gets the number of cells which died on the day which was counted.
+     *
+     * @return the number of cells which died
+     */
+    public final long getDeaths() {
+        return this.deaths;
+    }
+
+    /**
+     * Gets the smallest region containing the living cells, as reported while counting. Unlike
+     * {@link #boundingBox(GameOfLifeView)}, this costs nothing, but it is only exact if life was only ever added
+     * since the index was cleared.
+     *
+     * @return the extent of life, or null if there is no life
+     */
+    public final GameOfLifeRegion getExtent() {
+        if (this.firstRow > this.lastRow) {
+            return null;
+        }
+        return new GameOfLifeRegion(this.firstRow, this.firstColumn, this.lastRow - this.firstRow + 1, this.lastColumn - this.firstColumn + 1);
+    }
+
+    /**
+     * Gets the number of rows of tiles.
+     *
+     * @return the number of rows of tiles
+     */
+    public final int getTileRows() {
+        return this.tileRows;
+    }
+
+    /**
+     * Gets the number of columns of tiles.
+     *
+     * @return the number of columns of tiles
+     */
+    public final int getTileColumns() {
+        return this.tileColumns;
+    }
+
+    /**
+     * Gets the living cell count of a tile.
+     *
+     * @param tileRow the row coordinate of the tile
+     * @param tileColumn the column coordinate of the tile
+     * @return the number of living cells in the tile
+     */
+    public final int getTilePopulation(final int tileRow, final int tileColumn) {
+        return this.counts[tileRow][tileColumn];
+    }
+
+    /**
+     * Counts the living cells in a region. Fully covered tiles cost one lookup; only the cells of partially covered
+     * tiles with life are visited.
+     *
+     * @param region the region to count
+     * @param board the cells of the board
+     * @return the number of living cells in the region
+     */
+    final long population(final GameOfLifeRegion region, final GameOfLifeView board) {
+        final GameOfLifeRegion clipped = region.clip(this.rows, this.columns);
+        if (0 == clipped.getRows() || 0 == clipped.getColumns()) {
+            return 0;
+        }
+
+        final int firstRow = clipped.getRow();
+        final int firstColumn = clipped.getColumn();
+        final int lastRow = firstRow + clipped.getRows();
+        final int lastColumn = firstColumn + clipped.getColumns();
+
+        long population = 0;
+        for (int tileRow = firstRow >>> TILE_SHIFT; tileRow <= (lastRow - 1) >>> TILE_SHIFT; tileRow++) {
+            final int tileTop = tileRow << TILE_SHIFT;
+            final int tileBottom = Math.min(this.rows, tileTop + TILE_SIZE);
+
+            for (int tileColumn = firstColumn >>> TILE_SHIFT; tileColumn <= (lastColumn - 1) >>> TILE_SHIFT; tileColumn++) {
+                final int count = getTilePopulation(tileRow, tileColumn);
+                if (0 == count) {
+                    continue;
+                }
+
+                final int tileLeft = tileColumn << TILE_SHIFT;
+                final int tileRight = Math.min(this.columns, tileLeft + TILE_SIZE);
+
+                if (tileTop >= firstRow && tileBottom <= lastRow && tileLeft >= firstColumn && tileRight <= lastColumn) {
+                    // Fully covered
+                    population += count;
+                } else {
+                    // Partially covered; visit the covered cells
+                    for (int row = Math.max(tileTop, firstRow); row < Math.min(tileBottom, lastRow); row++) {
+                        for (int column = Math.max(tileLeft, firstColumn); column < Math.min(tileRight, lastColumn); column++) {
+                            if (board.getLife(row, column)) {
+                                population++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return population;
+    }
+
+    /**
+     * Finds the smallest region containing every living cell. Only the cells of the outermost tiles with life are
+     * visited.
+     *
+     * @param board the cells of the board
+     * @return the bounding box of life, or null if there is no life
+     */
+    final GameOfLifeRegion boundingBox(final GameOfLifeView board) {
+        if (0 == this.population) {
+            return null;
+        }
+
+        // Find the outermost tiles with life
+        int firstTileRow = Integer.MAX_VALUE;
+        int lastTileRow = -1;
+        int firstTileColumn = Integer.MAX_VALUE;
+        int lastTileColumn = -1;
+        for (int tileRow = 0; tileRow < this.tileRows; tileRow++) {
+            for (int tileColumn = 0; tileColumn < this.tileColumns; tileColumn++) {
+                if (0 != getTilePopulation(tileRow, tileColumn)) {
+                    firstTileRow = Math.min(firstTileRow, tileRow);
+                    lastTileRow = Math.max(lastTileRow, tileRow);
+                    firstTileColumn = Math.min(firstTileColumn, tileColumn);
+                    lastTileColumn = Math.max(lastTileColumn, tileColumn);
+                }
+            }
+        }
+
+        // Refine each edge within its tiles
+        final int firstRow = findRow(firstTileRow, board, true);
+        final int lastRow = findRow(lastTileRow, board, false);
+        final int firstColumn = findColumn(firstTileColumn, board, true);
+        final int lastColumn = findColumn(lastTileColumn, board, false);
+
+        return new GameOfLifeRegion(firstRow, firstColumn, lastRow - firstRow + 1, lastColumn - firstColumn + 1);
+    }
+
+    /**
+     * Finds the first (or last) row with life in a row of tiles.
+     *
+     * @param tileRow the row of tiles, which must have life
+     * @param board the cells of the board
+     * @param first true to find the first row; false to find the last row
+     * @return the row coordinate
+     */
+    private int findRow(final int tileRow, final GameOfLifeView board, final boolean first) {
+        final int top = tileRow << TILE_SHIFT;
+        final int bottom = Math.min(this.rows, top + TILE_SIZE);
+
+        for (int i = 0; i < bottom - top; i++) {
+            final int row = first ? top + i : bottom - 1 - i;
+            for (int tileColumn = 0; tileColumn < this.tileColumns; tileColumn++) {
+                if (0 == getTilePopulation(tileRow, tileColumn)) {
+                    continue;
+                }
+                final int left = tileColumn << TILE_SHIFT;
+                for (int column = left; column < Math.min(this.columns, left + TILE_SIZE); column++) {
+                    if (board.getLife(row, column)) {
+                        return row;
+                    }
+                }
+            }
+        }
+
+        throw new IllegalStateException("tile row " + tileRow + " has no life");
+    }
+
+    /**
+     * Finds the first (or last) column with life in a column of tiles.
+     *
+     * @param tileColumn the column of tiles, which must have life
+     * @param board the cells of the board
+     * @param first true to find the first column; false to find the last column
+     * @return the column coordinate
+     */
+    private int findColumn(final int tileColumn, final GameOfLifeView board, final boolean first) {
+        final int left = tileColumn << TILE_SHIFT;
+        final int right = Math.min(this.columns, left + TILE_SIZE);
+
+        for (int i = 0; i < right - left; i++) {
+            final int column = first ? left + i : right - 1 - i;
+            for (int tileRow = 0; tileRow < this.tileRows; tileRow++) {
+                if (0 == getTilePopulation(tileRow, tileColumn)) {
+                    continue;
+                }
+                final int top = tileRow << TILE_SHIFT;
+                for (int row = top; row < Math.min(this.rows, top + TILE_SIZE); row++) {
+                    if (board.getLife(row, column)) {
+                        return column;
+                    }
+                }
+            }
+        }
+
+        throw new IllegalStateException("tile column " + tileColumn + " has no life");
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * An immutable board made of 64x64 tiles, each tile being 64 packed rows (one word per row). Tiles without life are
+ * not stored, and tiles are grouped by row of tiles. Boards produced from one another share every tile which did not
+ * change, and every row of tiles in which no tile changed, so holding many generations costs memory in proportion to
+ * the change between them (plus one reference per row of tiles) rather than to the size of the board.
+ *
+ * @author jghidiu
+ */
+public final class GameOfLifeTiledBoard implements GameOfLifeView {
+
+    // The width and height of a tile
+    final static int TILE_SIZE = GameOfLifeTileIndex.TILE_SIZE;
+
+    // The dimensions of the board
+    private final int rows;
+    private final int columns;
+
+    // The tiles, by row of tiles then column (null for a tile without life); never modified
+    private final long[][][] tiles;
+
+    // The living cell count of the board
+    private final long population;
+
+
+    /**
+     * Creates a board. The arrays are retained, and must not be modified afterwards.
+     *
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @param tiles the tiles, by row of tiles then column, null for a tile without life
+     * @param population the living cell count of the board
+     */
+    GameOfLifeTiledBoard(final int rows, final int columns, final long[][][] tiles, final long population) {
+        this.rows = rows;
+        this.columns = columns;
+        this.tiles = tiles;
+        this.population = population;
+    }
+
+    /**
+     * Gets the number of tiles needed to cover a number of cells.
+     *
+     * @param cells the number of rows or columns
+     * @return the number of tiles
+     */
+    final static int getTileCount(final int cells) {
+        return (cells + TILE_SIZE - 1) / TILE_SIZE;
+    }
+
+    @Override
+    public final int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public final int getColumns() {
+        return this.columns;
+    }
+
+    @Override
+    public final boolean getLife(final int row, final int column) {
+        if (row < 0 || row >= this.rows || column < 0 || column >= this.columns) {
+            throw new IndexOutOfBoundsException("(" + row + ", " + column + ") is not on the board");
+        }
+        final long[] tile = this.tiles[row >>> 6][column >>> 6];
+        return null != tile && 0 != (tile[row & 63] & (1L << column));
+    }
+
+    /**
+     * Counts the living cells.
+     *
+     * @return the number of living cells
+     */
+    public final long getPopulation() {
+        return this.population;
+    }
+
+    /**
+     * Counts the tiles which have life (and are therefore stored).
+     *
+     * @return the number of stored tiles
+     */
+    public final int getStoredTileCount() {
+        int count = 0;
+        for (final long[][] tileRow : this.tiles) {
+            for (final long[] tile : tileRow) {
+                if (null != tile) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the stored tiles which are shared with another board.
+     *
+     * @param board the other board, which must have the same dimensions
+     * @return the number of tiles held by both boards
+     */
+    public final int getSharedTileCount(final GameOfLifeTiledBoard board) {
+        int count = 0;
+        for (int tileRow = 0; tileRow < this.tiles.length; tileRow++) {
+            for (int tileColumn = 0; tileColumn < this.tiles[tileRow].length; tileColumn++) {
+                if (null != this.tiles[tileRow][tileColumn] && this.tiles[tileRow][tileColumn] == board.tiles[tileRow][tileColumn]) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the rows of tiles which are shared with another board.
+     *
+     * @param board the other board, which must have the same dimensions
+     * @return the number of rows of tiles held by both boards
+     */
+    public final int getSharedTileRowCount(final GameOfLifeTiledBoard board) {
+        int count = 0;
+        for (int tileRow = 0; tileRow < this.tiles.length; tileRow++) {
+            if (this.tiles[tileRow] == board.tiles[tileRow]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets one word of a packed row (see {@link GameOfLifeMapUtil#pack(boolean[][])}).
+     *
+     * @param row the row
+     * @param word the index of the word within the row
+     * @return the word
+     */
+    final long getWord(final int row, final int word) {
+        final long[] tile = this.tiles[row >>> 6][word];
+        return null == tile ? 0 : tile[row & 63];
+    }
+
+    /**
+     * Returns a formatted representation of the board.
+     *
+     * @return a formatted representation of the board
+     */
+    @Override
+    public final String toString() {
+        return GameOfLifeMapUtil.toString(this);
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * A read-only view of (part of) a game board. Coordinates are relative to the view.
+ *
+ * @author jghidiu
+ */
+public interface GameOfLifeView {
+
+    /**
+     * Gets the number of rows in the view.
+     *
+     * @return the number of rows
+     */
+    int getRows();
+
+    /**
+     * Gets the number of columns in the view.
+     *
+     * @return the number of columns
+     */
+    int getColumns();
+
+    /**
+     * Determines if a cell is alive or dead.
+     *
+     * @param row the row coordinate of the cell to interrogate
+     * @param column the column coordinate of the cell to interrogate
+     * @return true, if the specified cell is alive; false otherwise
+     */
+    boolean getLife(int row, int column);
+
+}
@@ -12,6 +12,9 @@ public class GameRunner {
     // The demo mode flag; useful for testing
     private final static boolean DEMO_MODE = false;
 
+    // The engine to use (see GameOfLifeEngines); selected with -Dgameoflife.engine=name
+    private final static String ENGINE = System.getProperty("gameoflife.engine", GameOfLifeEngines.DEFAULT);
+
 
     /**
      * Runs the program. If a command line argument of "demo" is provided, then the application will run in a
@@ -26,7 +29,7 @@ public class GameRunner {
         // If demo mode is provided, run non-interactive
         if (DEMO_MODE || (1 == args.length && "demo".equals(args[0].toLowerCase()))) {
             // Setup
-            final GameOfLife gol = new GameOfLife(5, 3);
+            final GameOfLife gol = new GameOfLife(5, 3, ENGINE);
             //
             gol.addLife(0, 1);
             gol.addLife(1, 0);
@@ -55,7 +58,7 @@ public class GameRunner {
             final int rows = readInt("Enter the number of rows: ");
             final int columns = readInt("Enter the number of columns: ");
             //
-            final GameOfLife gol = new GameOfLife(rows, columns);
+            final GameOfLife gol = new GameOfLife(rows, columns, ENGINE);
             //
             do {
                 // Get the coordinates from the user
@@ -0,0 +1,128 @@
+package com.ghidiu.gameoflife;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A non-interactive runner for the "game of life", for batch jobs which launch many short simulations. It seeds a
+ * random soup, runs a number of days, and prints two lines: one once the first day has been run, and one with the
+ * final population and timings. The timings cover the days only, not creating and seeding the game.
+ *
+ * Starting up is kept cheap: the engine is chosen by a switch rather than by reflection, no lambdas, streams or
+ * formatters are bootstrapped, and the rule's lookup table (if any) is built before the clock for the first day starts. This also
+ * means the runner needs no reflection configuration for ahead-of-time compilation (for example
+ * <code>native-image -cp target/classes com.ghidiu.gameoflife.HeadlessGameRunner</code>). To start faster on the JVM,
+ * archive the loaded classes once and reuse the archive (class-data sharing needs the classes in a jar):
+ *
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=gameoflife.jsa -cp target/GameOfLife-0.0.1-SNAPSHOT.jar com.ghidiu.gameoflife.HeadlessGameRunner 64 64 100
+ * java -XX:SharedArchiveFile=gameoflife.jsa -XX:TieredStopAtLevel=1 -cp target/GameOfLife-0.0.1-SNAPSHOT.jar com.ghidiu.gameoflife.HeadlessGameRunner 64 64 100
+ * </pre>
+ *
+ * @author jghidiu
+ */
+public final class HeadlessGameRunner {
+
+    // The usage message
+    private final static String USAGE = "Usage: HeadlessGameRunner rows columns days [engine] [rule] [density] [seed]";
+
+
+    /**
+     * Runs the program.
+     *
+     * @param args the number of rows, columns and days; optionally the engine (default dense), the rule (default
+     * B3/S23, which needs the lookup engine to differ), the chance of a cell starting alive (default 0.3) and the seed
+     * of the soup (default 1)
+     */
+    public final static void main(final String[] args) {
+        final int status = run(args, System.out);
+        if (0 != status) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Runs a simulation, printing its progress.
+     *
+     * @param args the arguments (see {@link #main(String[])})
+     * @param out the stream to print to
+     * @return the exit status
+     */
+    final static int run(final String[] args, final PrintStream out) {
+        // Setup
+        final GameOfLife gol;
+        final int days;
+        try {
+            if (args.length < 3 || args.length > 7) {
+                throw new IllegalArgumentException("Expected 3 to 7 arguments");
+            }
+            final int rows = parsePositive(args[0]);
+            final int columns = parsePositive(args[1]);
+            days = Integer.parseInt(args[2]);
+            if (days < 0) {
+                throw new IllegalArgumentException("'" + args[2] + "' must not be negative");
+            }
+            final String engine = args.length > 3 ? args[3] : GameOfLifeEngines.DENSE;
+            final GameOfLifeRule rule = args.length > 4 ? GameOfLifeRule.parse(args[4]) : GameOfLifeRule.CONWAY;
+            final double density = args.length > 5 ? Double.parseDouble(args[5]) : 0.3;
+            final long seed = args.length > 6 ? Long.parseLong(args[6]) : 1;
+
+            // Creating the game builds the rule's table, if it needs one
+            gol = new GameOfLife(rows, columns, engine, rule);
+            final Random random = new Random(seed);
+            int[] cells = new int[64];
+            int length = 0;
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    if (random.nextDouble() < density) {
+                        if (length == cells.length) {
+                            cells = Arrays.copyOf(cells, 2 * length);
+                        }
+                        cells[length++] = row;
+                        cells[length++] = column;
+                    }
+                }
+            }
+            gol.addLife(Arrays.copyOf(cells, length));
+        } catch (final IllegalArgumentException e) {
+            // Includes NumberFormatException
+            out.println(e.getMessage());
+            out.println(USAGE);
+            return 2;
+        }
+
+
+        // Run the simulation
+        final long startTime = System.nanoTime();
+        long firstDayTime = 0;
+        for (int day = 0; day < days; day++) {
+            gol.runDay();
+
+            if (0 == day) {
+                firstDayTime = System.nanoTime();
+                out.println("first day=1 population=" + gol.population());
+                out.flush();
+            }
+        }
+
+
+        // Final output
+        final long endTime = System.nanoTime();
+        out.println("done day=" + gol.getDay()
+                + " population=" + gol.population()
+                + " firstDayMicros=" + (0 == firstDayTime ? 0 : (firstDayTime - startTime) / 1000)
+                + " totalMicros=" + (endTime - startTime) / 1000);
+        out.flush();
+        return 0;
+    }
+
+    private static int parsePositive(final String word) {
+        final int value = Integer.parseInt(word);
+        if (value <= 0) {
+            throw new IllegalArgumentException("'" + word + "' must be positive");
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * An engine which steps the board by table lookups instead of counting neighbors. The table maps every 4x4
+ * neighborhood (a 16 bit key) to the next day of its center 2x2 cells, and is built once from the rule; the board is
+ * kept packed (see {@link PackedEngine}) and a band of two rows is stepped 2x2 cells per lookup.
+ *
+ * The table for {@link GameOfLifeRule#CONWAY} is built when the class is initialized, so that the first day does not
+ * pay for it.
+ *
+ * @author jghidiu
+ */
+final class LookupTableEngine extends PackedEngine {
+
+    // The table of the "game of life"
+    private final static byte[] CONWAY_TABLE = buildTable(GameOfLifeRule.CONWAY);
+
+    // The rule the table was built from
+    private final GameOfLifeRule rule;
+
+    // Key bit (4 * r + c) is cell (r, c) of a 4x4 neighborhood; value bit (2 * (r - 1) + (c - 1)) is the next day of
+    // center cell (r, c)
+    private final byte[] table;
+
+    // Whether the empty neighborhood stays empty (true unless cells are born with no neighbors)
+    private final boolean emptyStaysEmpty;
+
+
+    /**
+     * Creates an engine with no life.
+     *
+     * @param rows the number of rows to use
+     * @param columns the number of columns to use
+     * @param rule the rule to step with
+     */
+    LookupTableEngine(final int rows, final int columns, final GameOfLifeRule rule) {
+        super(rows, columns);
+        this.rule = rule;
+        this.table = GameOfLifeRule.CONWAY.equals(rule) ? CONWAY_TABLE : buildTable(rule);
+        this.emptyStaysEmpty = 0 == this.table[0];
+    }
+
+    /**
+     * Builds the table for a rule.
+     *
+     * @param rule the rule
+     * @return the table of 65,536 entries
+     */
+    final static byte[] buildTable(final GameOfLifeRule rule) {
+        // The neighbors and the bit of each center cell
+        final int[] neighborMasks = new int[4];
+        final int[] cellBits = new int[4];
+        for (int row = 1; row <= 2; row++) {
+            for (int column = 1; column <= 2; column++) {
+                final int center = 2 * (row - 1) + (column - 1);
+                cellBits[center] = 1 << (4 * row + column);
+                for (int neighborRow = row - 1; neighborRow <= row + 1; neighborRow++) {
+                    for (int neighborColumn = column - 1; neighborColumn <= column + 1; neighborColumn++) {
+                        neighborMasks[center] |= 1 << (4 * neighborRow + neighborColumn);
+                    }
+                }
+                neighborMasks[center] &= ~cellBits[center];
+            }
+        }
+
+        // The result of every cell state and neighbor count, so that each entry is four lookups
+        final int[] results = new int[2 * 9];
+        for (int neighborCount = 0; neighborCount <= 8; neighborCount++) {
+            results[neighborCount] = rule.isAliveNextDay(false, neighborCount) ? 1 : 0;
+            results[9 + neighborCount] = rule.isAliveNextDay(true, neighborCount) ? 1 : 0;
+        }
+
+        final byte[] table = new byte[1 << 16];
+        for (int key = 0; key < table.length; key++) {
+            int result = 0;
+            for (int center = 0; center < 4; center++) {
+                final int alive = 0 != (key & cellBits[center]) ? 9 : 0;
+                result |= results[alive + Integer.bitCount(key & neighborMasks[center])] << center;
+            }
+            table[key] = (byte) result;
+        }
+
+        return table;
+    }
+
+    @Override
+    public final String getName() {
+        return GameOfLifeEngines.LOOKUP;
+    }
+
+    /**
+     * Gets the rule this engine steps with.
+     *
+     * @return the rule
+     */
+    final GameOfLifeRule getRule() {
+        return this.rule;
+    }
+
+    @Override
+    protected final void stepBand(final long[] yesterday, final long[] today, final int row) {
+        final boolean hasSecondRow = row + 1 < this.rows;
+
+        for (int word = 0; word < this.wordsPerRow; word++) {
+            // Bit b of x is the cell at column (64 * word + b - 1); tail holds columns (64 * word + 63) and (64 * word + 64)
+            final long x0 = shifted(yesterday, row - 1, word);
+            final long x1 = shifted(yesterday, row, word);
+            final long x2 = shifted(yesterday, row + 1, word);
+            final long x3 = shifted(yesterday, row + 2, word);
+            final int tail0 = tail(yesterday, row - 1, word);
+            final int tail1 = tail(yesterday, row, word);
+            final int tail2 = tail(yesterday, row + 1, word);
+            final int tail3 = tail(yesterday, row + 2, word);
+
+            long top = 0;
+            long bottom = 0;
+            if (!this.emptyStaysEmpty || 0 != (x0 | x1 | x2 | x3 | tail0 | tail1 | tail2 | tail3)) {
+                // One lookup per pair of columns
+                for (int pair = 0; pair < 32; pair++) {
+                    final int key;
+                    if (pair < 31) {
+                        final int shift = 2 * pair;
+                        key = (int) ((x0 >>> shift) & 0xF)
+                                | (int) ((x1 >>> shift) & 0xF) << 4
+                                | (int) ((x2 >>> shift) & 0xF) << 8
+                                | (int) ((x3 >>> shift) & 0xF) << 12;
+                    } else {
+                        key = ((int) (x0 >>> 62) | tail0 << 2)
+                                | ((int) (x1 >>> 62) | tail1 << 2) << 4
+                                | ((int) (x2 >>> 62) | tail2 << 2) << 8
+                                | ((int) (x3 >>> 62) | tail3 << 2) << 12;
+                    }
+
+                    final int result = this.table[key];
+                    top |= (long) (result & 3) << (2 * pair);
+                    bottom |= (long) ((result >>> 2) & 3) << (2 * pair);
+                }
+            }
+
+            final long mask = word == this.wordsPerRow - 1 ? this.lastWordMask : -1L;
+            today[row * this.wordsPerRow + word] = top & mask;
+            if (hasSecondRow) {
+                today[(row + 1) * this.wordsPerRow + word] = bottom & mask;
+            }
+        }
+    }
+
+    /**
+     * Gets a word of a row, shifted so that bit 0 is the last cell of the previous word.
+     */
+    private long shifted(final long[] board, final int row, final int word) {
+        if (row < 0 || row >= this.rows) {
+            return 0;
+        }
+        final int offset = row * this.wordsPerRow + word;
+        return (board[offset] << 1) | (word > 0 ? board[offset - 1] >>> 63 : 0);
+    }
+
+    /**
+     * Gets the last cell of a word and the first cell of the next word, as bits 0 and 1.
+     */
+    private int tail(final long[] board, final int row, final int word) {
+        if (row < 0 || row >= this.rows) {
+            return 0;
+        }
+        final int offset = row * this.wordsPerRow + word;
+        return (int) (board[offset] >>> 63) | (word < this.wordsPerRow - 1 ? (int) (board[offset + 1] & 1) << 1 : 0);
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * An engine which keeps the board as a map and steps it with {@link GameOfLifeMapUtil#runDay(boolean[][])}.
+ *
+ * @author jghidiu
+ */
+final class MapEngine implements GameOfLifeEngine {
+
+    // The dimensions of the board
+    private final int rows;
+    private final int columns;
+
+    // The life map
+    private boolean[][] lifeMap;
+
+    // Whether the life map is shared with a snapshot (and must be copied before it is changed)
+    private boolean shared;
+
+    // The number of living cells
+    private long population;
+
+
+    /**
+     * Creates an engine with no life.
+     *
+     * @param rows the number of rows to use
+     * @param columns the number of columns to use
+     */
+    MapEngine(final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.lifeMap = GameOfLifeMapUtil.createMap(rows, columns, false);
+    }
+
+    @Override
+    public final String getName() {
+        return GameOfLifeEngines.MAP;
+    }
+
+    @Override
+    public final int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public final int getColumns() {
+        return this.columns;
+    }
+
+    @Override
+    public final boolean getLife(final int row, final int column) {
+        return GameOfLifeMapUtil.getLife(row, column, this.lifeMap);
+    }
+
+    @Override
+    public final boolean setLife(final int row, final int column, final boolean alive) {
+        if (alive == getLife(row, column)) {
+            return false;
+        }
+
+        if (this.shared) {
+            this.lifeMap = GameOfLifeMapUtil.cloneMap(this.lifeMap);
+            this.shared = false;
+        }
+        GameOfLifeMapUtil.setLife(row, column, alive, this.lifeMap);
+        this.population += alive ? 1 : -1;
+        return true;
+    }
+
+    @Override
+    public final void step(final GameOfLifeTileIndex index) {
+        // runDay always returns a new map, so a snapshot of the old map stays intact
+        this.lifeMap = GameOfLifeMapUtil.runDay(this.lifeMap, index);
+        this.shared = false;
+        this.population = index.getPopulation();
+    }
+
+    @Override
+    public final long population() {
+        return this.population;
+    }
+
+    @Override
+    public final void forEachLife(final LifeVisitor visitor) {
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                if (GameOfLifeMapUtil.getLife(row, column, this.lifeMap)) {
+                    visitor.visit(row, column);
+                }
+            }
+        }
+    }
+
+    @Override
+    public final GameOfLifeView snapshot() {
+        this.shared = true;
+        return new GameOfLifeMapView(this.lifeMap, this.rows, this.columns);
+    }
+
+    @Override
+    public final String render() {
+        return GameOfLifeMapUtil.toString(this.lifeMap);
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * The base of engines which keep the board packed 64 cells to a word (see {@link GameOfLifeMapUtil#pack(boolean[][])}).
+ * Subclasses compute each band of two rows of the next day; this class counts the band into the tile index while it
+ * is still in cache, and manages sharing the board with snapshots.
+ *
+ * @author jghidiu
+ */
+abstract class PackedEngine implements GameOfLifeEngine {
+
+    // The dimensions of the board
+    protected final int rows;
+    protected final int columns;
+    protected final int wordsPerRow;
+
+    // The bits of the last word of each row which are on the board
+    protected final long lastWordMask;
+
+    // The packed board
+    private long[] words;
+
+    // A buffer for the next day (null if the previous board was handed to a snapshot)
+    private long[] spare;
+
+    // Whether the board is shared with a snapshot (and must be copied before it is changed)
+    private boolean shared;
+
+    // The number of living cells
+    private long population;
+
+
+    /**
+     * Creates an engine with no life.
+     *
+     * @param rows the number of rows to use
+     * @param columns the number of columns to use
+     */
+    protected PackedEngine(final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.wordsPerRow = GameOfLifeMapUtil.getWordsPerRow(columns);
+        this.lastWordMask = 0 == (columns & 63) ? -1L : (1L << columns) - 1;
+        this.words = new long[rows * this.wordsPerRow];
+    }
+
+    /**
+     * Computes rows row and row + 1 (if it is on the board) of the next day. Cells off the board must stay dead.
+     *
+     * @param yesterday the packed board
+     * @param today the packed board to write the next day into
+     * @param row the first row of the band; always even
+     */
+    protected abstract void stepBand(long[] yesterday, long[] today, int row);
+
+    @Override
+    public final int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public final int getColumns() {
+        return this.columns;
+    }
+
+    @Override
+    public final boolean getLife(final int row, final int column) {
+        checkBounds(row, column);
+        return 0 != (this.words[row * this.wordsPerRow + (column >>> 6)] & (1L << column));
+    }
+
+    @Override
+    public final boolean setLife(final int row, final int column, final boolean alive) {
+        if (alive == getLife(row, column)) {
+            return false;
+        }
+
+        if (this.shared) {
+            this.words = this.words.clone();
+            this.shared = false;
+        }
+        this.words[row * this.wordsPerRow + (column >>> 6)] ^= 1L << column;
+        this.population += alive ? 1 : -1;
+        return true;
+    }
+
+    @Override
+    public final void step(final GameOfLifeTileIndex index) {
+        index.clear();
+
+        final long[] today = null == this.spare ? new long[this.words.length] : this.spare;
+        final long[] yesterday = this.words;
+        long population = 0;
+        long births = 0;
+        long deaths = 0;
+
+        for (int row = 0; row < this.rows; row += 2) {
+            stepBand(yesterday, today, row);
+
+            // Count the band while it is in cache
+            for (int bandRow = row; bandRow < Math.min(this.rows, row + 2); bandRow++) {
+                final int offset = bandRow * this.wordsPerRow;
+                int firstWord = -1;
+                int lastWord = -1;
+
+                for (int word = 0; word < this.wordsPerRow; word++) {
+                    final long before = yesterday[offset + word];
+                    final long after = today[offset + word];
+                    births += Long.bitCount(after & ~before);
+                    deaths += Long.bitCount(before & ~after);
+
+                    if (0 != after) {
+                        final int count = Long.bitCount(after);
+                        index.addToTile(bandRow >>> 6, word, count);
+                        population += count;
+                        if (firstWord < 0) {
+                            firstWord = word;
+                        }
+                        lastWord = word;
+                    }
+                }
+
+                if (firstWord >= 0) {
+                    index.addExtent(bandRow, (firstWord << 6) + Long.numberOfTrailingZeros(today[offset + firstWord]),
+                            (lastWord << 6) + 63 - Long.numberOfLeadingZeros(today[offset + lastWord]));
+                }
+            }
+        }
+        index.addChanges(births, deaths);
+
+        // The old board becomes the spare, unless a snapshot still holds it
+        this.spare = this.shared ? null : yesterday;
+        this.words = today;
+        this.shared = false;
+        this.population = population;
+    }
+
+    @Override
+    public final long population() {
+        return this.population;
+    }
+
+    @Override
+    public final void forEachLife(final LifeVisitor visitor) {
+        for (int row = 0; row < this.rows; row++) {
+            for (int word = 0; word < this.wordsPerRow; word++) {
+                long bits = this.words[row * this.wordsPerRow + word];
+                while (0 != bits) {
+                    visitor.visit(row, (word << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    @Override
+    public final GameOfLifeView snapshot() {
+        this.shared = true;
+        return new GameOfLifePackedView(this.words, this.rows, this.columns);
+    }
+
+    @Override
+    public final String render() {
+        return GameOfLifeMapUtil.toString(this);
+    }
+
+    /**
+     * Rejects coordinates which are not on the board.
+     */
+    private void checkBounds(final int row, final int column) {
+        if (row < 0 || row >= this.rows || column < 0 || column >= this.columns) {
+            throw new ArrayIndexOutOfBoundsException("(" + row + ", " + column + ") is not on the board");
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.ghidiu.gameoflife;
+
+/**
+ * An engine which only keeps the living cells, in a hash table. Each day counts the neighbors of every living cell,
+ * so the cost of a day is proportional to the population rather than to the area of the board.
+ *
+ * @author jghidiu
+ */
+final class SparseEngine implements GameOfLifeEngine {
+
+    // Added to a cell's own count to mark it as alive; neighbor counts stay below this
+    private final static int SELF = 16;
+
+    // The dimensions of the board
+    private final int rows;
+    private final int columns;
+
+    // The living cells, keyed by row * columns + column
+    private GameOfLifeCellTable cells;
+
+    // Whether the cells are shared with a snapshot (and must be copied before they are changed)
+    private boolean shared;
+
+
+    /**
+     * Creates an engine with no life.
+     *
+     * @param rows the number of rows to use
+     * @param columns the number of columns to use
+     */
+    SparseEngine(final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = new GameOfLifeCellTable(0);
+    }
+
+    @Override
+    public final String getName() {
+        return GameOfLifeEngines.SPARSE;
+    }
+
+    @Override
+    public final int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public final int getColumns() {
+        return this.columns;
+    }
+
+    @Override
+    public final boolean getLife(final int row, final int column) {
+        return 0 != this.cells.get(key(row, column));
+    }
+
+    @Override
+    public final boolean setLife(final int row, final int column, final boolean alive) {
+        final long key = key(row, column);
+        if (alive == (0 != this.cells.get(key))) {
+            return false;
+        }
+
+        if (this.shared) {
+            this.cells = new GameOfLifeCellTable(this.cells);
+            this.shared = false;
+        }
+        if (alive) {
+            this.cells.add(key, 1);
+        } else {
+            this.cells.remove(key);
+        }
+        return true;
+    }
+
+    @Override
+    public final void step(final GameOfLifeTileIndex index) {
+        index.clear();
+
+        // Count the neighbors of every living cell (and mark the living cells themselves)
+        final GameOfLifeCellTable counts = new GameOfLifeCellTable(this.cells.size() * 9L);
+        for (int slot = 0; slot < this.cells.capacity(); slot++) {
+            final long key = this.cells.getKey(slot);
+            if (0 == this.cells.getValue(slot)) {
+                continue;
+            }
+
+            final int row = (int) (key / this.columns);
+            final int column = (int) (key % this.columns);
+            for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(this.rows - 1, row + 1); neighborRow++) {
+                for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(this.columns - 1, column + 1); neighborColumn++) {
+                    counts.add(key(neighborRow, neighborColumn), neighborRow == row && neighborColumn == column ? SELF : 1);
+                }
+            }
+        }
+
+        // Keep the cells with 3 neighbors, or with 2 neighbors if already alive
+        final GameOfLifeCellTable today = new GameOfLifeCellTable(this.cells.size());
+        long births = 0;
+        for (int slot = 0; slot < counts.capacity(); slot++) {
+            final int count = counts.getValue(slot);
+            final int neighborCount = count & (SELF - 1);
+            if (3 == neighborCount || (2 == neighborCount && count >= SELF)) {
+                final long key = counts.getKey(slot);
+                today.add(key, 1);
+                index.add((int) (key / this.columns), (int) (key % this.columns));
+                if (count < SELF) {
+                    births++;
+                }
+            }
+        }
+
+        // Every living cell which did not survive died
+        index.addChanges(births, this.cells.size() - (today.size() - births));
+
+        this.cells = today;
+        this.shared = false;
+    }
+
+    @Override
+    public final long population() {
+        return this.cells.size();
+    }
+
+    @Override
+    public final void forEachLife(final LifeVisitor visitor) {
+        for (int slot = 0; slot < this.cells.capacity(); slot++) {
+            if (0 != this.cells.getValue(slot)) {
+                final long key = this.cells.getKey(slot);
+                visitor.visit((int) (key / this.columns), (int) (key % this.columns));
+            }
+        }
+    }
+
+    @Override
+    public final GameOfLifeView snapshot() {
+        this.shared = true;
+        final GameOfLifeCellTable cells = this.cells;
+        final int rows = this.rows;
+        final int columns = this.columns;
+
+        return new GameOfLifeView() {
+            @Override
+            public int getRows() {
+                return rows;
+            }
+
+            @Override
+            public int getColumns() {
+                return columns;
+            }
+
+            @Override
+            public boolean getLife(final int row, final int column) {
+                return 0 != cells.get(key(row, column, rows, columns));
+            }
+
+            @Override
+            public String toString() {
+                return GameOfLifeMapUtil.toString(this);
+            }
+        };
+    }
+
+    @Override
+    public final String render() {
+        return GameOfLifeMapUtil.toString(this);
+    }
+
+    /**
+     * Gets the key of a cell.
+     */
+    private long key(final int row, final int column) {
+        return key(row, column, this.rows, this.columns);
+    }
+
+    /**
+     * Gets the key of a cell, rejecting coordinates which are not on the board.
+     */
+    private static long key(final int row, final int column, final int rows, final int columns) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new ArrayIndexOutOfBoundsException("(" + row + ", " + column + ") is not on the board");
+        }
+        return (long) row * columns + column;
+    }
+
+}
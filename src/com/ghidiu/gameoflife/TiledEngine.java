@@ -0,0 +1,400 @@
+package com.ghidiu.gameoflife;
+
+import java.util.Arrays;
+
+/**
+ * An engine which keeps the board as 64x64 tiles (see {@link GameOfLifeTiledBoard}). Each day only allocates the
+ * tiles which changed, and the rows of tiles holding them; every other tile and row of tiles is shared with the
+ * previous day. A tile whose neighborhood of nine tiles was not changed by the previous day is not computed at all (nor
+ * is a row of tiles whose neighboring rows were not changed), and snapshots cost one object regardless of the size of
+ * the board. The population and extent of life of each tile are kept from the day the tile last changed.
+ *
+ * @author jghidiu
+ */
+final class TiledEngine implements GameOfLifeEngine {
+
+    // The width and height of a tile
+    private final static int TILE_SIZE = GameOfLifeTiledBoard.TILE_SIZE;
+
+    // Marks a tile extent which must be found again
+    private final static int UNKNOWN_EXTENT = -1;
+
+    // The dimensions of the board
+    private final int rows;
+    private final int columns;
+
+    // The dimensions of the tile grid
+    private final int tileRows;
+    private final int tileColumns;
+
+    // The bits of the last column of tiles which are on the board
+    private final long lastColumnMask;
+
+    // The tiles, by row of tiles then column (null for a tile without life)
+    private long[][][] tiles;
+    private long population;
+
+    // The population and extent of life of each tile (row major); the extent packs the first and last row and the
+    // first and last column with life, a byte each (see extentOf)
+    private final int[] populations;
+    private final int[] extents;
+
+    // The tiles which the current tiles were computed from (null if they were not computed by a day)
+    private long[][][] previousTiles;
+
+    // The tile array, a row of tiles or a tile may only be changed in place while its owner epoch is the current
+    // epoch, as it may be shared with a snapshot or another day
+    private int spineEpoch;
+    private final int[] rowEpochs;
+    private final int[] ownerEpochs;
+    private int epoch = 1;
+
+
+    /**
+     * Creates an engine with no life.
+     *
+     * @param rows the number of rows to use
+     * @param columns the number of columns to use
+     */
+    TiledEngine(final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.tileRows = GameOfLifeTiledBoard.getTileCount(rows);
+        this.tileColumns = GameOfLifeTiledBoard.getTileCount(columns);
+        this.lastColumnMask = 0 == (columns & 63) ? -1L : (1L << columns) - 1;
+        this.tiles = new long[this.tileRows][this.tileColumns][];
+        this.populations = new int[this.tileRows * this.tileColumns];
+        this.extents = new int[this.populations.length];
+        this.spineEpoch = this.epoch;
+        this.rowEpochs = new int[this.tileRows];
+        Arrays.fill(this.rowEpochs, this.epoch);
+        this.ownerEpochs = new int[this.populations.length];
+    }
+
+    @Override
+    public final String getName() {
+        return GameOfLifeEngines.TILED;
+    }
+
+    @Override
+    public final int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public final int getColumns() {
+        return this.columns;
+    }
+
+    @Override
+    public final boolean getLife(final int row, final int column) {
+        checkBounds(row, column);
+        final long[] tile = this.tiles[row >>> 6][column >>> 6];
+        return null != tile && 0 != (tile[row & 63] & (1L << column));
+    }
+
+    @Override
+    public final boolean setLife(final int row, final int column, final boolean alive) {
+        if (alive == getLife(row, column)) {
+            return false;
+        }
+
+        // Copy the tile array, the row of tiles and the tile the first time each is changed
+        final int tileRow = row >>> 6;
+        final int tileColumn = column >>> 6;
+        if (this.spineEpoch != this.epoch) {
+            this.tiles = this.tiles.clone();
+            this.spineEpoch = this.epoch;
+        }
+        if (this.rowEpochs[tileRow] != this.epoch) {
+            this.tiles[tileRow] = this.tiles[tileRow].clone();
+            this.rowEpochs[tileRow] = this.epoch;
+        }
+        final int index = tileRow * this.tileColumns + tileColumn;
+        if (this.ownerEpochs[index] != this.epoch) {
+            final long[] tile = this.tiles[tileRow][tileColumn];
+            this.tiles[tileRow][tileColumn] = null == tile ? new long[TILE_SIZE] : tile.clone();
+            this.ownerEpochs[index] = this.epoch;
+        }
+
+        this.tiles[tileRow][tileColumn][row & 63] ^= 1L << column;
+        this.populations[index] += alive ? 1 : -1;
+        this.extents[index] = UNKNOWN_EXTENT;
+        this.population += alive ? 1 : -1;
+        return true;
+    }
+
+    @Override
+    public final void step(final GameOfLifeTileIndex index) {
+        index.clear();
+
+        final long[][][] today = new long[this.tileRows][][];
+        long population = 0;
+        long births = 0;
+        long deaths = 0;
+
+        for (int tileRow = 0; tileRow < this.tileRows; tileRow++) {
+            final long[][] current = this.tiles[tileRow];
+            long[][] next = current;
+
+            if (!isSettled(tileRow)) {
+                for (int tileColumn = 0; tileColumn < this.tileColumns; tileColumn++) {
+                    // The same neighborhood as yesterday gives the same tile as today
+                    if (isSettled(tileRow, tileColumn)) {
+                        continue;
+                    }
+
+                    final long[] tile = nextTile(tileRow, tileColumn);
+                    if (tile == current[tileColumn]) {
+                        continue;
+                    }
+
+                    // The row of tiles is shared with yesterday until one of its tiles changes
+                    if (next == current) {
+                        next = current.clone();
+                    }
+                    next[tileColumn] = tile;
+
+                    for (int row = 0; row < TILE_SIZE; row++) {
+                        final long before = word(current[tileColumn], row);
+                        final long after = word(tile, row);
+                        births += Long.bitCount(after & ~before);
+                        deaths += Long.bitCount(before & ~after);
+                    }
+
+                    final int slot = tileRow * this.tileColumns + tileColumn;
+                    this.populations[slot] = populationOf(tile);
+                    this.extents[slot] = null == tile ? UNKNOWN_EXTENT : extentOf(tile);
+                }
+            }
+            today[tileRow] = next;
+
+            // Count the tiles with life, using the extent found when each last changed
+            for (int tileColumn = 0; tileColumn < this.tileColumns; tileColumn++) {
+                final int slot = tileRow * this.tileColumns + tileColumn;
+                final int tilePopulation = this.populations[slot];
+                if (0 == tilePopulation) {
+                    continue;
+                }
+
+                index.addToTile(tileRow, tileColumn, tilePopulation);
+                population += tilePopulation;
+
+                if (UNKNOWN_EXTENT == this.extents[slot]) {
+                    this.extents[slot] = extentOf(next[tileColumn]);
+                }
+                final int extent = this.extents[slot];
+                final int top = tileRow * TILE_SIZE;
+                final int left = tileColumn * TILE_SIZE;
+                index.addExtent(top + (extent & 0xFF), left + ((extent >>> 16) & 0xFF), left + (extent >>> 24));
+                index.addExtent(top + ((extent >>> 8) & 0xFF), left + ((extent >>> 16) & 0xFF), left + (extent >>> 24));
+            }
+        }
+        index.addChanges(births, deaths);
+
+        this.previousTiles = this.tiles;
+        this.tiles = today;
+        this.population = population;
+
+        // Today's rows of tiles and tiles may be shared with yesterday's, but the tile array is new
+        this.epoch++;
+        this.spineEpoch = this.epoch;
+    }
+
+    /**
+     * Determines if the neighboring rows of tiles of a row of tiles are the same (by reference) as the rows it was
+     * computed from.
+     */
+    private boolean isSettled(final int tileRow) {
+        if (null == this.previousTiles) {
+            return false;
+        }
+
+        for (int row = Math.max(0, tileRow - 1); row <= Math.min(this.tileRows - 1, tileRow + 1); row++) {
+            if (this.tiles[row] != this.previousTiles[row]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines if the neighborhood of a tile is the same (by reference) as the neighborhood it was computed from.
+     */
+    private boolean isSettled(final int tileRow, final int tileColumn) {
+        if (null == this.previousTiles) {
+            return false;
+        }
+
+        for (int row = Math.max(0, tileRow - 1); row <= Math.min(this.tileRows - 1, tileRow + 1); row++) {
+            for (int column = Math.max(0, tileColumn - 1); column <= Math.min(this.tileColumns - 1, tileColumn + 1); column++) {
+                if (this.tiles[row][column] != this.previousTiles[row][column]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the next day for a tile.
+     *
+     * @return the tile, the current tile if it did not change, or null if it has no life
+     */
+    private long[] nextTile(final int tileRow, final int tileColumn) {
+        final long[] northWest = tileAt(tileRow - 1, tileColumn - 1);
+        final long[] north = tileAt(tileRow - 1, tileColumn);
+        final long[] northEast = tileAt(tileRow - 1, tileColumn + 1);
+        final long[] west = tileAt(tileRow, tileColumn - 1);
+        final long[] self = tileAt(tileRow, tileColumn);
+        final long[] east = tileAt(tileRow, tileColumn + 1);
+        final long[] southWest = tileAt(tileRow + 1, tileColumn - 1);
+        final long[] south = tileAt(tileRow + 1, tileColumn);
+        final long[] southEast = tileAt(tileRow + 1, tileColumn + 1);
+
+        // Nothing can be born without neighbors
+        if (null == self && null == north && null == south && null == west && null == east
+                && null == northWest && null == northEast && null == southWest && null == southEast) {
+            return null;
+        }
+
+        final int rowsInTile = Math.min(TILE_SIZE, this.rows - tileRow * TILE_SIZE);
+        final long mask = tileColumn == this.tileColumns - 1 ? this.lastColumnMask : -1L;
+        final long[] next = new long[TILE_SIZE];
+        boolean alive = false;
+
+        for (int row = 0; row < rowsInTile; row++) {
+            final long word;
+            if (0 == row || TILE_SIZE - 1 == row) {
+                // Edge rows reach into the tiles above or below
+                word = GameOfLifeMapUtil.runDay(
+                        0 == row ? word(northWest, TILE_SIZE - 1) : word(west, row - 1),
+                        0 == row ? word(north, TILE_SIZE - 1) : word(self, row - 1),
+                        0 == row ? word(northEast, TILE_SIZE - 1) : word(east, row - 1),
+                        word(west, row), word(self, row), word(east, row),
+                        TILE_SIZE - 1 == row ? word(southWest, 0) : word(west, row + 1),
+                        TILE_SIZE - 1 == row ? word(south, 0) : word(self, row + 1),
+                        TILE_SIZE - 1 == row ? word(southEast, 0) : word(east, row + 1));
+            } else {
+                word = GameOfLifeMapUtil.runDay(
+                        word(west, row - 1), word(self, row - 1), word(east, row - 1),
+                        word(west, row), word(self, row), word(east, row),
+                        word(west, row + 1), word(self, row + 1), word(east, row + 1));
+            }
+
+            next[row] = word & mask;
+            alive |= 0 != next[row];
+        }
+
+        if (!alive) {
+            return null;
+        }
+
+        // Share the current tile when nothing changed
+        return null != self && Arrays.equals(next, self) ? self : next;
+    }
+
+    /**
+     * Gets a tile, or null if it has no life or is off the board.
+     */
+    private long[] tileAt(final int tileRow, final int tileColumn) {
+        if (tileRow < 0 || tileRow >= this.tileRows || tileColumn < 0 || tileColumn >= this.tileColumns) {
+            return null;
+        }
+        return this.tiles[tileRow][tileColumn];
+    }
+
+    /**
+     * Gets a row of a tile, or 0 if the tile has no life.
+     */
+    private static long word(final long[] tile, final int row) {
+        return null == tile ? 0 : tile[row];
+    }
+
+    /**
+     * Counts the living cells of a tile.
+     */
+    private static int populationOf(final long[] tile) {
+        if (null == tile) {
+            return 0;
+        }
+
+        int population = 0;
+        for (final long word : tile) {
+            population += Long.bitCount(word);
+        }
+        return population;
+    }
+
+    /**
+     * Finds the extent of life in a tile: the first row with life, then the last row, the first column and the last
+     * column, a byte each.
+     *
+     * @param tile the tile, which must have life
+     */
+    private static int extentOf(final long[] tile) {
+        int firstRow = -1;
+        int lastRow = -1;
+        long columns = 0;
+        for (int row = 0; row < TILE_SIZE; row++) {
+            if (0 != tile[row]) {
+                if (firstRow < 0) {
+                    firstRow = row;
+                }
+                lastRow = row;
+                columns |= tile[row];
+            }
+        }
+        return firstRow | lastRow << 8 | Long.numberOfTrailingZeros(columns) << 16 | (63 - Long.numberOfLeadingZeros(columns)) << 24;
+    }
+
+    @Override
+    public final long population() {
+        return this.population;
+    }
+
+    @Override
+    public final void forEachLife(final LifeVisitor visitor) {
+        for (int tileRow = 0; tileRow < this.tileRows; tileRow++) {
+            for (int tileColumn = 0; tileColumn < this.tileColumns; tileColumn++) {
+                final long[] tile = this.tiles[tileRow][tileColumn];
+                if (null == tile) {
+                    continue;
+                }
+
+                final int top = tileRow * TILE_SIZE;
+                final int left = tileColumn * TILE_SIZE;
+                for (int row = 0; row < TILE_SIZE; row++) {
+                    long bits = tile[row];
+                    while (0 != bits) {
+                        visitor.visit(top + row, left + Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public final GameOfLifeTiledBoard snapshot() {
+        // Anything changed in place from now on would be seen by the snapshot
+        this.epoch++;
+
+        return new GameOfLifeTiledBoard(this.rows, this.columns, this.tiles, this.population);
+    }
+
+    @Override
+    public final String render() {
+        return GameOfLifeMapUtil.toString(this);
+    }
+
+    /**
+     * Rejects coordinates which are not on the board.
+     */
+    private void checkBounds(final int row, final int column) {
+        if (row < 0 || row >= this.rows || column < 0 || column >= this.columns) {
+            throw new ArrayIndexOutOfBoundsException("(" + row + ", " + column + ") is not on the board");
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.ghidiu.gameoflife;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures what readers cost the stepper: the time per day of a game stepped alone, then while readers query it as
+ * fast as they can, then alone again. Readers neither lock nor publish, so the stepper's CPU time per day should not
+ * change; its elapsed time also grows if the readers share its processors. This is not a unit test; run it with
+ * <code>java -cp target/classes:target/test-classes com.ghidiu.gameoflife.GameOfLifeConcurrencyBenchmark [size] [days] [readers]</code>.
+ *
+ * @author jghidiu
+ */
+public class GameOfLifeConcurrencyBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the board size (default 256), the number of days to time (default 1000) and the number of readers
+     *             (default one per processor)
+     * @throws InterruptedException if interrupted while waiting for the readers
+     */
+    public static void main(final String[] args) throws InterruptedException {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        final int days = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        final int readerCount = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        final GameOfLife gol = new GameOfLife(size, size, GameOfLifeEngines.DENSE);
+        gol.addLife(soup(size));
+
+        // Warm up, then step alone
+        step(gol, threads, days);
+        final long[] before = step(gol, threads, days);
+
+        // Step while readers query as fast as they can
+        final AtomicBoolean stepping = new AtomicBoolean(true);
+        final AtomicLong reads = new AtomicLong();
+        final List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < readerCount; i++) {
+            final Thread reader = new Thread(() -> {
+                while (stepping.get()) {
+                    final GameOfLifeGeneration generation = gol.getGeneration();
+                    if (generation.population() >= 0 && generation.getDay() >= 0) {
+                        reads.incrementAndGet();
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        final long[] read = step(gol, threads, days);
+        stepping.set(false);
+        for (final Thread reader : readers) {
+            reader.join();
+        }
+
+        // Step alone again, so that compilation or collection during one run does not skew the comparison
+        final long[] after = step(gol, threads, days);
+
+        System.out.printf("%dx%d, %d days, %d processors%n", size, size, days, Runtime.getRuntime().availableProcessors());
+        print("alone", before);
+        print(readerCount + " readers", read);
+        print("alone again", after);
+        System.out.printf("%d reads (%.1f per day)%n", reads.get(), (double) reads.get() / days);
+    }
+
+    /**
+     * Runs days, and returns the mean elapsed time and the median CPU time of the current thread per day.
+     */
+    private static long[] step(final GameOfLife gol, final ThreadMXBean threads, final int days) {
+        final long[] cpuNanos = new long[days];
+        final long start = System.nanoTime();
+        for (int day = 0; day < days; day++) {
+            final long startCpu = threads.getCurrentThreadCpuTime();
+            gol.runDay();
+            cpuNanos[day] = threads.getCurrentThreadCpuTime() - startCpu;
+        }
+        final long elapsed = System.nanoTime() - start;
+        Arrays.sort(cpuNanos);
+        return new long[] { elapsed / days, cpuNanos[days / 2] };
+    }
+
+    private static void print(final String label, final long[] times) {
+        System.out.printf("%-12s %8.3f ms/day elapsed %8.3f ms/day CPU (median)%n", label, times[0] / 1e6, times[1] / 1e6);
+    }
+
+    /**
+     * Returns the cells of a repeatable random soup, as row and column pairs.
+     */
+    private static int[] soup(final int size) {
+        final Random random = new Random(7);
+        int[] cells = new int[64];
+        int length = 0;
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                if (0 == random.nextInt(3)) {
+                    if (length == cells.length) {
+                        cells = Arrays.copyOf(cells, 2 * length);
+                    }
+                    cells[length++] = row;
+                    cells[length++] = column;
+                }
+            }
+        }
+        return Arrays.copyOf(cells, length);
+    }
+
+}
@@ -0,0 +1,246 @@
+package com.ghidiu.gameoflife;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * Stress tests for using the GameOfLife class from many threads at once.
+ *
+ * @author jghidiu
+ */
+public class GameOfLifeConcurrencyTest {
+
+    // The number of days the stepper runs
+    private final static int DAYS = 200;
+
+    // The number of threads which read while the stepper runs
+    private final static int READERS = 4;
+
+
+    @Test
+    public void testReadersOnlySeeCompletedGenerations() throws InterruptedException {
+        final boolean[][] soup = soup(96, 80);
+
+        // The expected board of each day
+        final String[] expected = new String[DAYS + 1];
+        boolean[][] map = soup;
+        for (int day = 0; day <= DAYS; day++) {
+            expected[day] = GameOfLifeMapUtil.toString(map);
+            map = GameOfLifeMapUtil.runDay(map);
+        }
+
+        for (final String name : GameOfLifeEngines.getNames()) {
+            final GameOfLife gol = new GameOfLife(soup.length, soup[0].length, name);
+            seed(gol, soup);
+
+            final AtomicBoolean stepping = new AtomicBoolean(true);
+            final AtomicReference<String> failure = new AtomicReference<>();
+            final AtomicLong reads = new AtomicLong();
+            final CountDownLatch started = new CountDownLatch(READERS);
+
+            final List<Thread> readers = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                readers.add(start(() -> {
+                    started.countDown();
+                    long lastDay = 0;
+                    while (stepping.get() && null == failure.get()) {
+                        final GameOfLifeGeneration generation = gol.getGeneration();
+                        final int day = (int) generation.getDay();
+                        final String board = generation.toString();
+
+                        // Each generation is a whole day, whose counts match its board, and days never go backwards
+                        if (day < lastDay) {
+                            failure.compareAndSet(null, name + ": day " + day + " was read after day " + lastDay);
+                        } else if (!expected[day].equals(board)) {
+                            failure.compareAndSet(null, name + ": day " + day + " was torn");
+                        } else if (generation.population() != count(board)) {
+                            failure.compareAndSet(null, name + ": day " + day + " has the wrong population");
+                        }
+                        lastDay = day;
+                        reads.incrementAndGet();
+                    }
+                }));
+            }
+
+            started.await();
+            for (int day = 0; day < DAYS; day++) {
+                gol.runDay();
+            }
+            stepping.set(false);
+            for (final Thread reader : readers) {
+                reader.join();
+            }
+
+            assertThat(failure.get(), is((String) null));
+            assertThat(name, gol.toString(), is(expected[DAYS]));
+            assertThat(name + " readers ran", reads.get() > 0, is(true));
+        }
+    }
+
+    @Test
+    public void testLifeAddedWhileSteppingIsApplied() throws InterruptedException {
+        for (final String name : GameOfLifeEngines.getNames()) {
+            final GameOfLife gol = new GameOfLife(128, 128, name);
+            final AtomicBoolean stepping = new AtomicBoolean(true);
+            final Thread stepper = start(() -> {
+                while (stepping.get()) {
+                    gol.runDay();
+                }
+            });
+
+            // Each writer adds blocks (2x2 still lifes, far enough apart not to meet) to its own quarter of the rows
+            final List<Thread> writers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                final int writer = i;
+                writers.add(start(() -> {
+                    for (int row = 32 * writer; row < 32 * writer + 32; row += 4) {
+                        for (int column = 0; column < 128; column += 4) {
+                            gol.addLife(row, column);
+                            gol.addLife(row, column + 1);
+                            gol.addLife(row + 1, column);
+                            gol.addLife(row + 1, column + 1);
+                        }
+                    }
+                }));
+            }
+            for (final Thread writer : writers) {
+                writer.join();
+            }
+            stepping.set(false);
+            stepper.join();
+
+            // A block may have been stepped before it was complete (and died, or grew back from three cells); once
+            // stepped again, every block is whole or gone, and the counts match the board
+            gol.runDay();
+            final GameOfLifeGeneration generation = gol.getGeneration();
+            long population = 0;
+            for (int row = 0; row < 128; row += 4) {
+                for (int column = 0; column < 128; column += 4) {
+                    final int cells = count(generation.viewport(new GameOfLifeRegion(row, column, 2, 2)).toString());
+                    assertThat(name + " block at (" + row + ", " + column + ")", 0 == cells || 4 == cells, is(true));
+                    population += cells;
+                }
+            }
+            assertThat(name, generation.population(), is(population));
+            assertThat(name, count(generation.toString()), is((int) population));
+            assertThat(name + " blocks", population > 0, is(true));
+        }
+    }
+
+    @Test
+    public void testAddedLifeIsPublishedByTheWriter() throws InterruptedException {
+        final GameOfLife gol = new GameOfLife(8, 8);
+        final GameOfLifeGeneration before = gol.getGeneration();
+
+        // Other threads only see the life once the thread which added it publishes it, by reading
+        gol.addLife(1, 1);
+        assertThat("unpublished life is not seen by others", populationFromAnotherThread(gol), is(0L));
+        final GameOfLifeGeneration after = gol.getGeneration();
+        assertThat("a writer sees its own life", after.population(), is(1L));
+        assertThat("published life is seen by others", populationFromAnotherThread(gol), is(1L));
+        assertThat("reading publishes nothing new", gol.getGeneration() == after, is(true));
+        assertThat("earlier generations do not change", before.population(), is(0L));
+
+        gol.addLife(new int[] { 2, 2, 3, 3 });
+        assertThat(gol.population(), is(3L));
+        try {
+            gol.addLife(new int[] { 4, 4, 8, 0 });
+            fail("Life off the board should be rejected");
+        } catch (final IndexOutOfBoundsException e) {
+            assertThat("none of the life is added", gol.population(), is(3L));
+        }
+    }
+
+    @Test
+    public void testLifeAddedFromManyThreads() throws InterruptedException {
+        final GameOfLife gol = new GameOfLife(64, 64, GameOfLifeEngines.DENSE);
+
+        final List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final int writer = i;
+            writers.add(start(() -> {
+                for (int row = writer; row < 64; row += 8) {
+                    for (int column = 0; column < 64; column++) {
+                        gol.addLife(row, column);
+                    }
+                }
+                // Reading publishes the writer's own life
+                assertThat(gol.population() >= 8 * 64, is(true));
+            }));
+        }
+        for (final Thread writer : writers) {
+            writer.join();
+        }
+
+        assertThat(gol.population(), is(64L * 64));
+        assertThat(gol.getDay(), is(0L));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testLifeOffTheBoardIsRejected() {
+        new GameOfLife(4, 4).addLife(4, 0);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // HELPER METHODS
+    ////////////////////////////////////////////////////////////////////////////
+
+    private static long populationFromAnotherThread(final GameOfLife gol) throws InterruptedException {
+        final AtomicLong population = new AtomicLong();
+        start(() -> population.set(gol.getGeneration().population())).join();
+        return population.get();
+    }
+
+    private static Thread start(final Runnable runnable) {
+        final Thread thread = new Thread(runnable);
+        thread.start();
+        return thread;
+    }
+
+    private static boolean[][] soup(final int rows, final int columns) {
+        final Random random = new Random(7);
+        final boolean[][] map = GameOfLifeMapUtil.createMap(rows, columns, false);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                map[row][column] = 0 == random.nextInt(3);
+            }
+        }
+        return map;
+    }
+
+    private static void seed(final GameOfLife gol, final boolean[][] map) {
+        final IntStream.Builder cells = IntStream.builder();
+        for (int row = 0; row < map.length; row++) {
+            for (int column = 0; column < map[row].length; column++) {
+                if (map[row][column]) {
+                    cells.add(row).add(column);
+                }
+            }
+        }
+        gol.addLife(cells.build().toArray());
+    }
+
+    private static int count(final String board) {
+        int count = 0;
+        for (int i = 0; i < board.length(); i++) {
+            if ('X' == board.charAt(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
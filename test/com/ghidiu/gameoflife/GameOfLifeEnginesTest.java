@@ -0,0 +1,237 @@
+package com.ghidiu.gameoflife;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Unit tests for the engines created by the GameOfLifeEngines class; every engine is checked against
+ * GameOfLifeMapUtil.runDay.
+ *
+ * @author jghidiu
+ */
+public class GameOfLifeEnginesTest {
+
+    // Randomizer (seeded so that failures are reproducible)
+    private final Random random = new Random(1234);
+
+
+    @Test
+    public void testCreateByName() {
+        for (final String name : GameOfLifeEngines.getNames()) {
+            assertThat(GameOfLifeEngines.create(name, 3, 3).getName(), is(name));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateUnknownName() {
+        GameOfLifeEngines.create("unknown", 3, 3);
+    }
+
+    @Test
+    public void testStepMatchesRunDay() {
+        // Include widths which end on, before and after a word boundary
+        final int[][] sizes = {{1, 1}, {5, 3}, {10, 63}, {9, 64}, {12, 65}, {70, 130}};
+
+        for (final String name : GameOfLifeEngines.getNames()) {
+            for (final int[] size : sizes) {
+                assertStepMatchesRunDay(name, size[0], size[1], 3, 20);
+                assertStepMatchesRunDay(name, size[0], size[1], 12, 20);
+            }
+        }
+    }
+
+    @Test
+    public void testSetLife() {
+        for (final String name : GameOfLifeEngines.getNames()) {
+            final GameOfLifeEngine engine = GameOfLifeEngines.create(name, 4, 70);
+
+            assertThat(name, engine.setLife(3, 69, true), is(true));
+            assertThat(name, engine.setLife(3, 69, true), is(false));
+            assertThat(name, engine.getLife(3, 69), is(true));
+            assertThat(name, engine.population(), is(1L));
+
+            assertThat(name, engine.setLife(3, 69, false), is(true));
+            assertThat(name, engine.getLife(3, 69), is(false));
+            assertThat(name, engine.population(), is(0L));
+        }
+    }
+
+    @Test
+    public void testSnapshotIsImmutable() {
+        for (final String name : GameOfLifeEngines.getNames()) {
+            final GameOfLifeEngine engine = GameOfLifeEngines.create(name, 3, 3);
+            final GameOfLifeTileIndex index = new GameOfLifeTileIndex(3, 3);
+
+            // A blinker
+            engine.setLife(1, 0, true);
+            engine.setLife(1, 1, true);
+            engine.setLife(1, 2, true);
+            final GameOfLifeView snapshot = engine.snapshot();
+            final String rendered = GameOfLifeMapUtil.toString(snapshot);
+
+            // Neither setting life nor stepping changes the snapshot
+            engine.setLife(0, 0, true);
+            engine.step(index);
+            engine.step(index);
+            assertThat(name, GameOfLifeMapUtil.toString(snapshot), is(rendered));
+
+            // The engine itself moved on
+            boolean[][] map = GameOfLifeMapUtil.createMap(3, 3, false);
+            map[1][0] = true;
+            map[1][1] = true;
+            map[1][2] = true;
+            map[0][0] = true;
+            map = GameOfLifeMapUtil.runDay(GameOfLifeMapUtil.runDay(map));
+            assertEngineMatches(engine, map);
+        }
+    }
+
+    @Test
+    public void testAdaptiveMigratesBothWays() {
+        final int rows = 128;
+        final int columns = 128;
+        final AdaptiveEngine engine = (AdaptiveEngine) GameOfLifeEngines.create(GameOfLifeEngines.ADAPTIVE, rows, columns);
+        final GameOfLifeTileIndex index = new GameOfLifeTileIndex(rows, columns);
+
+        // A dense soup moves to the dense engine as it is seeded, before the first day
+        boolean[][] map = randomMap(rows, columns, 2);
+        seed(engine, index, map);
+        assertThat(engine.getEngine(), instanceOf(DenseEngine.class));
+        engine.step(index);
+        map = GameOfLifeMapUtil.runDay(map);
+        assertThat(engine.getEngine(), instanceOf(DenseEngine.class));
+        assertEngineMatches(engine, map);
+
+        // Clearing all but a glider moves it back to the sparse engine
+        map = GameOfLifeMapUtil.createMap(rows, columns, false);
+        map[0][1] = true;
+        map[1][2] = true;
+        map[2][0] = true;
+        map[2][1] = true;
+        map[2][2] = true;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                engine.setLife(row, column, map[row][column]);
+            }
+        }
+        index.clear();
+        engine.forEachLife(index::add);
+        for (int day = 0; day < AdaptiveEngine.MINIMUM_DAYS; day++) {
+            engine.step(index);
+            map = GameOfLifeMapUtil.runDay(map);
+        }
+        assertThat(engine.getEngine(), instanceOf(SparseEngine.class));
+        assertEngineMatches(engine, map);
+    }
+
+    @Test
+    public void testCellTableCapacity() {
+        assertThat(GameOfLifeCellTable.capacityFor(0), is(32));
+        assertThat(GameOfLifeCellTable.capacityFor(1000), is(2048));
+
+        // Sizes past the maximum (such as the neighbor counts of a huge population) are capped rather than overflowing
+        assertThat(GameOfLifeCellTable.capacityFor(1L << 29), is(GameOfLifeCellTable.MAXIMUM_CAPACITY));
+        assertThat(GameOfLifeCellTable.capacityFor(300_000_000L * 9), is(GameOfLifeCellTable.MAXIMUM_CAPACITY));
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // HELPER METHODS
+    ////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Steps an engine and GameOfLifeMapUtil.runDay from the same random soup and asserts they agree each day.
+     */
+    private void assertStepMatchesRunDay(final String name, final int rows, final int columns, final int oneIn, final int days) {
+        final GameOfLifeEngine engine = GameOfLifeEngines.create(name, rows, columns);
+        final GameOfLifeTileIndex index = new GameOfLifeTileIndex(rows, columns);
+        boolean[][] map = randomMap(rows, columns, oneIn);
+        seed(engine, index, map);
+
+        for (int day = 0; day < days; day++) {
+            engine.step(index);
+            final boolean[][] yesterday = map;
+            map = GameOfLifeMapUtil.runDay(map);
+
+            assertEngineMatches(engine, map);
+            assertThat(name + " index population", index.getPopulation(), is(engine.population()));
+            assertIndexStatistics(name, index, yesterday, map);
+        }
+    }
+
+    /**
+     * Asserts that the births, deaths and extent an engine reported while stepping match the change between maps.
+     */
+    private static void assertIndexStatistics(final String name, final GameOfLifeTileIndex index, final boolean[][] yesterday, final boolean[][] today) {
+        long births = 0;
+        long deaths = 0;
+        int firstRow = Integer.MAX_VALUE;
+        int lastRow = -1;
+        int firstColumn = Integer.MAX_VALUE;
+        int lastColumn = -1;
+        for (int row = 0; row < today.length; row++) {
+            for (int column = 0; column < today[row].length; column++) {
+                births += today[row][column] && !yesterday[row][column] ? 1 : 0;
+                deaths += yesterday[row][column] && !today[row][column] ? 1 : 0;
+                if (today[row][column]) {
+                    firstRow = Math.min(firstRow, row);
+                    lastRow = Math.max(lastRow, row);
+                    firstColumn = Math.min(firstColumn, column);
+                    lastColumn = Math.max(lastColumn, column);
+                }
+            }
+        }
+
+        assertThat(name + " births", index.getBirths(), is(births));
+        assertThat(name + " deaths", index.getDeaths(), is(deaths));
+        assertThat(name + " extent", index.getExtent(), is(lastRow < 0 ? null
+                : new GameOfLifeRegion(firstRow, firstColumn, lastRow - firstRow + 1, lastColumn - firstColumn + 1)));
+    }
+
+    /**
+     * Asserts that an engine holds the same board as a map.
+     */
+    private static void assertEngineMatches(final GameOfLifeEngine engine, final boolean[][] map) {
+        assertThat(engine.getName() + " render", engine.render(), is(GameOfLifeMapUtil.toString(map)));
+
+        long population = 0;
+        for (final boolean[] row : map) {
+            for (final boolean alive : row) {
+                population += alive ? 1 : 0;
+            }
+        }
+        assertThat(engine.getName() + " population", engine.population(), is(population));
+    }
+
+    /**
+     * Sets the life of an engine (and its index) from a map.
+     */
+    private static void seed(final GameOfLifeEngine engine, final GameOfLifeTileIndex index, final boolean[][] map) {
+        for (int row = 0; row < map.length; row++) {
+            for (int column = 0; column < map[row].length; column++) {
+                if (map[row][column] && engine.setLife(row, column, true)) {
+                    index.add(row, column);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a map where roughly one in n cells is alive.
+     */
+    private boolean[][] randomMap(final int rows, final int columns, final int oneIn) {
+        final boolean[][] map = GameOfLifeMapUtil.createMap(rows, columns, false);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                map[row][column] = 0 == random.nextInt(oneIn);
+            }
+        }
+        return map;
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.ghidiu.gameoflife;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for the GameOfLifeFrameRecorder class.
+ *
+ * @author jghidiu
+ */
+public class GameOfLifeFrameRecorderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void testPbmFramesMatchEveryEngine() throws IOException {
+        for (final String name : GameOfLifeEngines.getNames()) {
+            final Path path = folder.newFile(name + ".pbm").toPath();
+            final GameOfLife gol = glider(name, 20, 70);
+            final boolean[][][] expected = new boolean[4][][];
+
+            try (GameOfLifeFrameRecorder recorder = new GameOfLifeFrameRecorder(path, GameOfLifeFrameRecorder.Format.PBM, 20, 70, 2, null, 1, 16)) {
+                for (int day = 0; day < 8; day++) {
+                    if (0 == day % 2) {
+                        expected[day / 2] = toMap(gol.snapshot());
+                    }
+                    recorder.record(gol.getDay(), gol.snapshot());
+                    gol.runDay();
+                }
+            }
+
+            // Every second day was written, as concatenated P4 images
+            final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            for (final boolean[][] frame : expected) {
+                assertThat(name, readPbm(buffer), is(toString(frame)));
+            }
+            assertThat(name + " trailing bytes", buffer.remaining(), is(0));
+        }
+    }
+
+    @Test
+    public void testPackedCropAndScale() throws IOException {
+        final Path path = folder.newFile("frames.golf").toPath();
+        final GameOfLife gol = new GameOfLife(10, 100, GameOfLifeEngines.DENSE);
+        gol.addLife(2, 65);
+        gol.addLife(9, 99);
+        gol.addLife(1, 10);
+
+        // Crop away the first 64 columns and the first row, and scale by 3
+        try (GameOfLifeFrameRecorder recorder = new GameOfLifeFrameRecorder(path, GameOfLifeFrameRecorder.Format.PACKED, 10, 100, 1,
+                new GameOfLifeRegion(1, 64, 50, 50), 3, 4)) {
+            assertThat(recorder.getWidth(), is(12));
+            assertThat(recorder.getHeight(), is(3));
+            recorder.record(0, gol.snapshot());
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        final byte[] magic = new byte[4];
+        buffer.get(magic);
+        assertThat(new String(magic, StandardCharsets.US_ASCII), is("GOLF"));
+        assertThat(buffer.getInt(), is(GameOfLifeFrameRecorder.PACKED_VERSION));
+        assertThat(buffer.getInt(), is(12));
+        assertThat(buffer.getInt(), is(3));
+        assertThat(buffer.getLong(), is(0L));
+
+        // (2, 65) becomes pixel (0, 0); (9, 99) becomes pixel (2, 11); (1, 10) was cropped away
+        assertThat(buffer.getLong(), is(1L));
+        assertThat(buffer.getLong(), is(0L));
+        assertThat(buffer.getLong(), is(1L << 11));
+        assertThat(buffer.remaining(), is(0));
+    }
+
+    @Test
+    public void testGenerationsOffTheIntervalAreIgnored() throws IOException {
+        final Path path = folder.newFile("frames.pbm").toPath();
+        final GameOfLife gol = new GameOfLife(2, 2);
+
+        try (GameOfLifeFrameRecorder recorder = new GameOfLifeFrameRecorder(path, GameOfLifeFrameRecorder.Format.PBM, 2, 2, 5, null, 1, 4)) {
+            assertThat(recorder.record(3, gol.snapshot()), is(false));
+            assertThat(recorder.record(5, gol.snapshot()), is(true));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSnapshotOfTheWrongSizeIsRejected() throws IOException {
+        final Path path = folder.newFile("frames.pbm").toPath();
+
+        try (GameOfLifeFrameRecorder recorder = new GameOfLifeFrameRecorder(path, GameOfLifeFrameRecorder.Format.PBM, 2, 2, 1, null, 1, 1)) {
+            recorder.record(0, new GameOfLife(3, 3).snapshot());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testWriterFailureIsReported() throws IOException {
+        final Path path = folder.newFile("frames.pbm").toPath();
+
+        // A view which fails while it is being encoded
+        final GameOfLifeView broken = new GameOfLifeView() {
+            @Override
+            public int getRows() {
+                return 2;
+            }
+
+            @Override
+            public int getColumns() {
+                return 2;
+            }
+
+            @Override
+            public boolean getLife(final int row, final int column) {
+                throw new IllegalStateException("broken view");
+            }
+        };
+
+        final GameOfLifeFrameRecorder recorder = new GameOfLifeFrameRecorder(path, GameOfLifeFrameRecorder.Format.PBM, 2, 2, 1, null, 1, 1);
+        assertThat(recorder.record(0, broken), is(true));
+
+        // Fill the queue once the writer has failed; close() must not wait for room which will never come
+        try {
+            for (int generation = 1; ; generation++) {
+                recorder.record(generation, new GameOfLife(2, 2).snapshot());
+                Thread.yield();
+            }
+        } catch (final IOException e) {
+            assertThat(e.getCause().getMessage(), is("broken view"));
+        }
+
+        try {
+            recorder.close();
+            fail("close() should report the failure");
+        } catch (final IOException e) {
+            assertThat(e.getCause().getMessage(), is("broken view"));
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // HELPER METHODS
+    ////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a game with a glider which crosses the first word boundary.
+     */
+    private static GameOfLife glider(final String engine, final int rows, final int columns) {
+        final GameOfLife gol = new GameOfLife(rows, columns, engine);
+        gol.addLife(0, 62);
+        gol.addLife(1, 63);
+        gol.addLife(2, 61);
+        gol.addLife(2, 62);
+        gol.addLife(2, 63);
+        return gol;
+    }
+
+    private static boolean[][] toMap(final GameOfLifeView view) {
+        return GameOfLifeMapUtil.unpack(GameOfLifeMapUtil.pack(view), view.getRows(), view.getColumns());
+    }
+
+    private static String toString(final boolean[][] map) {
+        return GameOfLifeMapUtil.toString(map);
+    }
+
+    /**
+     * Reads one P4 image, returning it in the GameOfLifeMapUtil.toString format.
+     */
+    private static String readPbm(final ByteBuffer buffer) {
+        final String magic = readToken(buffer);
+        assertThat(magic, is("P4"));
+        final int width = Integer.parseInt(readToken(buffer));
+        final int height = Integer.parseInt(readToken(buffer));
+
+        final boolean[][] map = GameOfLifeMapUtil.createMap(height, width, false);
+        final int rowBytes = (width + 7) / 8;
+        for (int row = 0; row < height; row++) {
+            final byte[] bytes = new byte[rowBytes];
+            buffer.get(bytes);
+            for (int column = 0; column < width; column++) {
+                map[row][column] = 0 != (bytes[column / 8] & (0x80 >>> (column % 8)));
+            }
+        }
+        return toString(map);
+    }
+
+    /**
+     * Reads a whitespace terminated header token (and the single whitespace after it).
+     */
+    private static String readToken(final ByteBuffer buffer) {
+        final StringBuilder token = new StringBuilder();
+        for (char c = (char) buffer.get(); !Character.isWhitespace(c); c = (char) buffer.get()) {
+            token.append(c);
+        }
+        return token.toString();
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.ghidiu.gameoflife;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for the GameOfLifeHistory class.
+ *
+ * @author jghidiu
+ */
+public class GameOfLifeHistoryTest {
+
+    // Randomizer (seeded so that failures are reproducible)
+    private final Random random = new Random(42);
+
+    // Dimensions (wider than one word)
+    private final int rowCount = 20;
+    private final int columnCount = 100;
+
+    // The generations which were recorded
+    private List<boolean[][]> generations;
+
+    private GameOfLifeHistory history;
+
+
+    @Before
+    public void beforeEach() {
+        generations = new ArrayList<>();
+    }
+
+    @After
+    public void afterEach() {
+        history.close();
+    }
+
+    @Test
+    public void testSeekForward() {
+        history = new GameOfLifeHistory(rowCount, columnCount, 8, 1 << 20);
+        recordRandomRun(50);
+
+        for (int generation = 0; generation < generations.size(); generation++) {
+            assertGeneration(generation);
+        }
+    }
+
+    @Test
+    public void testSeekBackward() {
+        history = new GameOfLifeHistory(rowCount, columnCount, 8, 1 << 20);
+        recordRandomRun(50);
+
+        for (int generation = generations.size() - 1; generation >= 0; generation--) {
+            assertGeneration(generation);
+        }
+    }
+
+    @Test
+    public void testSeekRandomly() {
+        history = new GameOfLifeHistory(rowCount, columnCount, 5, 1 << 20);
+        recordRandomRun(50);
+
+        for (int i = 0; i < 100; i++) {
+            assertGeneration(random.nextInt(generations.size()));
+        }
+    }
+
+    @Test
+    public void testSpill() {
+        // A tiny budget forces nearly every record to disk
+        history = new GameOfLifeHistory(rowCount, columnCount, 8, 64);
+        recordRandomRun(50);
+
+        assertThat("Records should have been spilled", history.getSpilledSize(), greaterThan(0L));
+        for (int i = 0; i < 100; i++) {
+            assertGeneration(random.nextInt(generations.size()));
+        }
+    }
+
+    @Test
+    public void testLongSpilledRun() {
+        // A budget of one byte spills every record; each spill must not hold resources of its own
+        history = new GameOfLifeHistory(8, 8, 16, 1);
+        final boolean[][] map = GameOfLifeMapUtil.createMap(8, 8, false);
+        for (int i = 0; i < 20000; i++) {
+            map[i % 8][(i / 8) % 8] = !map[i % 8][(i / 8) % 8];
+            history.record(map);
+        }
+
+        assertThat(history.size(), is(20000));
+        assertThat(history.seek(19999)[7][3], is(map[7][3]));
+    }
+
+    @Test
+    public void testCloseDeletesTemporarySpillFile() {
+        history = new GameOfLifeHistory(rowCount, columnCount, 8, 64);
+        recordRandomRun(10);
+        final File spillFile = history.getSpillFile();
+        assertThat(spillFile.exists(), is(true));
+
+        history.close();
+        assertThat(spillFile.exists(), is(false));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRecordAfterClose() {
+        history = new GameOfLifeHistory(rowCount, columnCount, 8, 64);
+        recordRandomRun(10);
+        history.close();
+
+        history.record(GameOfLifeMapUtil.createMap(rowCount, columnCount, false));
+    }
+
+    @Test
+    public void testKeyframeIntervalOfOne() {
+        history = new GameOfLifeHistory(rowCount, columnCount, 1, 1 << 20);
+        recordRandomRun(10);
+
+        for (int generation = 0; generation < generations.size(); generation++) {
+            assertGeneration(generation);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSeekPastEnd() {
+        history = new GameOfLifeHistory(rowCount, columnCount, 8, 1 << 20);
+        recordRandomRun(3);
+
+        history.seek(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRecordWrongDimensions() {
+        history = new GameOfLifeHistory(rowCount, columnCount, 8, 1 << 20);
+
+        history.record(GameOfLifeMapUtil.createMap(rowCount, columnCount + 1, false));
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // HELPER METHODS
+    ////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Records a run which starts from a random soup.
+     *
+     * @param count the number of generations to record
+     */
+    private void recordRandomRun(final int count) {
+        boolean[][] map = GameOfLifeMapUtil.createMap(rowCount, columnCount, false);
+        for (int row = 0; row < rowCount; row++) {
+            for (int column = 0; column < columnCount; column++) {
+                map[row][column] = random.nextInt(3) == 0;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            history.record(map);
+            generations.add(map);
+            map = GameOfLifeMapUtil.runDay(map);
+        }
+
+        assertThat(history.size(), is(count));
+    }
+
+    /**
+     * Asserts that a generation decodes to the map which was recorded.
+     *
+     * @param generation the generation to check
+     */
+    private void assertGeneration(final int generation) {
+        final boolean[][] expected = generations.get(generation);
+        final boolean[][] actual = history.seek(generation);
+
+        for (int row = 0; row < rowCount; row++) {
+            for (int column = 0; column < columnCount; column++) {
+                assertThat(String.format("generation %d, row '%d', column '%d'", generation, row, column), actual[row][column], is(expected[row][column]));
+            }
+        }
+    }
+
+}
@@ -325,6 +325,33 @@ public class GameOfLifeMapUtilTest {
     }
 
 
+    ////////////////////////////////////////////////////////////////////////////
+    // pack(map) / unpack(words, rows, columns)
+    ////////////////////////////////////////////////////////////////////////////
+    @Test
+    public void testPackAndUnpack() {
+        // Use a width which spans more than one word
+        actualMap = GameOfLifeMapUtil.createMap(3, 70, false);
+        GameOfLifeMapUtil.setLife(0, 0, true, actualMap);
+        GameOfLifeMapUtil.setLife(1, 63, true, actualMap);
+        GameOfLifeMapUtil.setLife(2, 69, true, actualMap);
+
+        final long[] words = GameOfLifeMapUtil.pack(actualMap);
+
+        // Assertions
+        assertThat(words.length, is(3 * 2));
+        assertThat(words[0], is(1L));
+        assertThat(words[2], is(1L << 63));
+        assertThat(words[5], is(1L << 5));
+        assertMapEquality(GameOfLifeMapUtil.unpack(words, 3, 70), actualMap);
+    }
+
+    @Test
+    public void testPackAndUnpackRandomMap() {
+        assertMapEquality(GameOfLifeMapUtil.unpack(GameOfLifeMapUtil.pack(actualMap), rowCount, columnCount), actualMap);
+    }
+
+
     ////////////////////////////////////////////////////////////////////////////
     // toString(map)
     ////////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,201 @@
+package com.ghidiu.gameoflife;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for the GameOfLifeScheduler class.
+ *
+ * @author jghidiu
+ */
+public class GameOfLifeSchedulerTest {
+
+    @Test
+    public void testDaysAreRun() throws InterruptedException {
+        try (GameOfLifeScheduler scheduler = new GameOfLifeScheduler(2)) {
+            final GameOfLifeSession session = blinker(1);
+
+            scheduler.submit(session, 3, System.nanoTime() + TimeUnit.SECONDS.toNanos(10)).await();
+            scheduler.submit(session, 4, System.nanoTime() + TimeUnit.SECONDS.toNanos(10)).await();
+
+            assertThat(session.getGame().getDay(), is(7L));
+            assertThat("a blinker is vertical on odd days", session.getGame().toString(), is(String.join(System.lineSeparator(), "OOOOO", "OOXOO", "OOXOO", "OOXOO", "OOOOO", "")));
+            final String statistics = scheduler.getStatistics(session);
+            assertThat(statistics, containsString("generations=7 "));
+            assertThat(statistics, containsString("requests=2 "));
+            assertThat(statistics, containsString("missedDeadlines=0 "));
+        }
+    }
+
+    @Test
+    public void testSmallSessionIsNotStarvedByGiantSession() throws InterruptedException {
+        // One worker, so that the sessions must take turns
+        try (GameOfLifeScheduler scheduler = new GameOfLifeScheduler(1)) {
+            final GameOfLifeSession giant = new GameOfLifeSession(1, soup(512, 512), TimeUnit.MILLISECONDS.toNanos(1));
+            final GameOfLifeSession small = blinker(2);
+
+            final GameOfLifeSession.StepRequest giantRequest = scheduler.submit(giant, 1000000, System.nanoTime() + TimeUnit.DAYS.toNanos(1));
+            final GameOfLifeSession.StepRequest smallRequest = scheduler.submit(small, 100, System.nanoTime() + TimeUnit.DAYS.toNanos(1));
+
+            smallRequest.await();
+            assertThat("the giant session is still running", giantRequest.isDone(), is(false));
+            assertThat(small.getGame().getDay(), is(100L));
+        }
+    }
+
+    @Test
+    public void testMissedDeadlinesAreCounted() throws InterruptedException {
+        try (GameOfLifeScheduler scheduler = new GameOfLifeScheduler(1)) {
+            final GameOfLifeSession session = blinker(1);
+
+            scheduler.submit(session, 1, System.nanoTime() - 1).await();
+
+            assertThat(scheduler.getStatistics(session), containsString("missedDeadlines=1 "));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testFailedDayFailsTheRequest() throws InterruptedException {
+        try (GameOfLifeScheduler scheduler = new GameOfLifeScheduler(1)) {
+            // A closed history makes every day throw
+            final GameOfLifeSession broken = blinker(1);
+            final GameOfLifeHistory history = new GameOfLifeHistory(5, 5, 4, 1024);
+            broken.getGame().setHistory(history);
+            history.close();
+
+            final GameOfLifeSession.StepRequest request = scheduler.submit(broken, 3, System.nanoTime());
+            try {
+                request.await();
+                fail("The request should fail");
+            } catch (final IllegalStateException e) {
+                assertThat(e.getMessage(), containsString("day failed"));
+            }
+            assertThat(scheduler.getStatistics(broken), containsString("failed=1 pending=0 "));
+
+            // The worker survives
+            final GameOfLifeSession session = blinker(2);
+            scheduler.submit(session, 3, System.nanoTime()).await();
+            assertThat(session.getGame().getDay(), is(3L));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCancelFailsRequests() throws InterruptedException {
+        try (GameOfLifeScheduler scheduler = new GameOfLifeScheduler(1)) {
+            final GameOfLifeSession session = new GameOfLifeSession(1, soup(256, 256), TimeUnit.MILLISECONDS.toNanos(1));
+            final GameOfLifeSession.StepRequest first = scheduler.submit(session, 1000000000, System.nanoTime());
+            final GameOfLifeSession.StepRequest second = scheduler.submit(session, 1, System.nanoTime());
+
+            scheduler.cancel(session);
+            assertThat(first.getFailure(), is("session 1 is closed"));
+            assertThat(second.getFailure(), is("session 1 is closed"));
+            try {
+                scheduler.submit(session, 1, System.nanoTime());
+                fail("A cancelled session should take no requests");
+            } catch (final IllegalStateException e) {
+                // Expected
+            }
+
+            // The worker is freed once the turn in progress ends
+            final GameOfLifeSession other = blinker(2);
+            scheduler.submit(other, 3, System.nanoTime()).await();
+            assertThat(other.getGame().getDay(), is(3L));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCancelledRequestIsNotCompleted() throws InterruptedException {
+        try (GameOfLifeScheduler scheduler = new GameOfLifeScheduler(1)) {
+            // A long slice, so that the turn cancelled below would complete the request
+            final GameOfLifeSession session = new GameOfLifeSession(1, soup(256, 256), TimeUnit.SECONDS.toNanos(10));
+            final GameOfLifeSession.StepRequest request = scheduler.submit(session, 500, System.nanoTime() - 1);
+            while (!running(scheduler, session)) {
+                Thread.yield();
+            }
+            scheduler.cancel(session);
+
+            // Wait for the turn to end
+            scheduler.submit(blinker(2), 1, System.nanoTime()).await();
+            assertThat(request.getFailure(), is("session 1 is closed"));
+            assertThat(scheduler.getStatistics(session), containsString(" requests=0 failed=1 pending=0 missedDeadlines=0 "));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCloseFailsWaitingRequests() throws InterruptedException {
+        final GameOfLifeScheduler scheduler = new GameOfLifeScheduler(1);
+        final GameOfLifeSession giant = new GameOfLifeSession(1, soup(256, 256), TimeUnit.MILLISECONDS.toNanos(1));
+        final GameOfLifeSession small = blinker(2);
+        final GameOfLifeSession.StepRequest giantRequest = scheduler.submit(giant, 1000000000, System.nanoTime());
+        final GameOfLifeSession.StepRequest smallRequest = scheduler.submit(small, 1000000000, System.nanoTime());
+
+        scheduler.close();
+        for (final GameOfLifeSession.StepRequest request : new GameOfLifeSession.StepRequest[] { giantRequest, smallRequest }) {
+            try {
+                request.await();
+                fail("The request should fail");
+            } catch (final IllegalStateException e) {
+                assertThat(e.getMessage(), is("scheduler is closed"));
+            }
+        }
+    }
+
+    @Test
+    public void testNoDaysIsDoneImmediately() {
+        try (GameOfLifeScheduler scheduler = new GameOfLifeScheduler(1)) {
+            assertThat(scheduler.submit(blinker(1), 0, System.nanoTime()).isDone(), is(true));
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // HELPER METHODS
+    ////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Determines if a session is taking a turn.
+     */
+    private static boolean running(final GameOfLifeScheduler scheduler, final GameOfLifeSession session) {
+        // Reading the statistics takes the lock which guards the flag
+        scheduler.getStatistics(session);
+        return session.running;
+    }
+
+    /**
+     * Creates a session of a horizontal blinker on a 5x5 board.
+     */
+    private static GameOfLifeSession blinker(final int id) {
+        final GameOfLife gol = new GameOfLife(5, 5);
+        gol.addLife(2, 1);
+        gol.addLife(2, 2);
+        gol.addLife(2, 3);
+        return new GameOfLifeSession(id, gol, TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Creates a game with a repeatable random soup.
+     */
+    private static GameOfLife soup(final int rows, final int columns) {
+        final GameOfLife gol = new GameOfLife(rows, columns);
+        final Random random = new Random(42);
+        final IntStream.Builder cells = IntStream.builder();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (random.nextInt(3) == 0) {
+                    cells.add(row).add(column);
+                }
+            }
+        }
+        gol.addLife(cells.build().toArray());
+        return gol;
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.ghidiu.gameoflife;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Unit tests for the GameOfLifeServer class.
+ *
+ * @author jghidiu
+ */
+public class GameOfLifeServerTest {
+
+    private GameOfLifeServer server;
+
+    // The sessions created through send()
+    private final Set<Integer> owned = new HashSet<>();
+
+
+    @Before
+    public void setUp() throws IOException {
+        server = new GameOfLifeServer(0, 2, GameOfLifeServer.DEFAULT_SLICE_NANOS);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void testCommands() {
+        assertThat(send("CREATE 5 5 dense"), is("OK 1\n"));
+        assertThat(send("SEED 1 2 1 2 2 2 3"), is("OK 3\n"));
+        assertThat(send("QUERY 1"), is("OK 0 3 (2, 1) 1x3\n"));
+        assertThat(send("STEP 1 1 1000"), is("OK 1\n"));
+        assertThat(send("QUERY 1 0 0 2 5"), is("OK 1 1 (1, 2) 3x1\n"));
+        assertThat(send("SNAPSHOT 1 1 1 3 3"), is("OK 3 3\nOXO\nOXO\nOXO\n"));
+        assertThat(send("STATS 1"), startsWith("OK 1\nsession=1 generations=1 "));
+        assertThat(send("CLOSE 1"), is("OK\n"));
+        assertThat(send("QUERY 1"), is("ERROR no session 1\n"));
+    }
+
+    @Test
+    public void testErrors() {
+        assertThat(send("CREATE 5 5 nonsense"), startsWith("ERROR "));
+        assertThat(send("CREATE 0 5"), startsWith("ERROR "));
+        assertThat(send("CREATE 100000 100000"), is("ERROR a board may have at most " + GameOfLifeServer.DEFAULT_MAXIMUM_CELLS + " cells\n"));
+        assertThat(send("CREATE 5 5"), is("OK 2\n"));
+        assertThat(send("SEED 2 5 0"), is("ERROR '5' is off the board\n"));
+        assertThat(send("SEED 2 1"), startsWith("ERROR "));
+        assertThat(send("STEP 2 -1"), startsWith("ERROR "));
+        assertThat(send("STEP 2 x"), startsWith("ERROR "));
+        assertThat(send("DANCE"), is("ERROR unknown command 'DANCE'\n"));
+    }
+
+    @Test
+    public void testSessionsOfOtherClients() {
+        assertThat(send("CREATE 5 5"), is("OK 1\n"));
+
+        // Another client may look at the session, but not change or close it
+        final Set<Integer> other = new HashSet<>();
+        assertThat(send("QUERY 1", other), is("OK 0 0 none\n"));
+        assertThat(send("SEED 1 1 1", other), is("ERROR session 1 belongs to another client\n"));
+        assertThat(send("STEP 1 1", other), is("ERROR session 1 belongs to another client\n"));
+        assertThat(send("CLOSE 1", other), is("ERROR session 1 belongs to another client\n"));
+        assertThat(owned.contains(1), is(true));
+        assertThat(send("STEP 1 1"), is("OK 1\n"));
+        assertThat(send("CLOSE 1"), is("OK\n"));
+    }
+
+    @Test
+    public void testSlice() {
+        assertThat(send("CREATE 5 5 dense 20"), is("OK 1\n"));
+        assertThat(send("CREATE 5 5 dense 0"), is("ERROR '0' must be positive\n"));
+        assertThat(send("CREATE 5 5 dense 1001"), is("ERROR a turn may take at most 1000 milliseconds\n"));
+        assertThat(send("STEP 1 2"), is("OK 2\n"));
+    }
+
+    @Test
+    public void testMaximumCells() throws IOException {
+        try (GameOfLifeServer small = new GameOfLifeServer(0, 1, GameOfLifeServer.DEFAULT_SLICE_NANOS, 100)) {
+            final StringWriter response = new StringWriter();
+            small.handle("CREATE 10 10", new PrintWriter(response), owned);
+            small.handle("CREATE 10 11", new PrintWriter(response), owned);
+            assertThat(response.toString(), is("OK 1\nERROR a board may have at most 100 cells\n"));
+        }
+    }
+
+    @Test
+    public void testSocket() throws IOException {
+        server.start();
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), true)) {
+            writer.println("CREATE 3 3");
+            assertThat(reader.readLine(), is("OK 1"));
+            writer.println("SEED 1 0 0 1 1");
+            assertThat(reader.readLine(), is("OK 2"));
+            writer.println("STEP 1 1");
+            assertThat(reader.readLine(), is("OK 1"));
+            writer.println("SNAPSHOT 1");
+            assertThat(reader.readLine(), is("OK 3 3"));
+            assertThat(reader.readLine(), is("OOO"));
+            assertThat(reader.readLine(), is("OOO"));
+            assertThat(reader.readLine(), is("OOO"));
+            writer.println("QUIT");
+            assertThat(reader.readLine(), is("OK"));
+            assertThat("the connection is closed", reader.readLine(), is((String) null));
+        }
+
+        // The sessions of the client are closed with its connection
+        assertThat(send("QUERY 1"), is("ERROR no session 1\n"));
+    }
+
+    @Test(timeout = 10000)
+    public void testDisconnectAbandonsStep() throws IOException, InterruptedException {
+        server.start();
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), true)) {
+            writer.println("CREATE 64 64");
+            assertThat(reader.readLine(), is("OK 1"));
+            writer.println("SEED 1 0 1 1 2 2 0 2 1 2 2");
+            assertThat(reader.readLine(), is("OK 5"));
+            writer.println("STEP 1 1000000000");
+        }
+
+        // Once the client has gone, its session is closed and the workers are free again
+        while (!send("QUERY 1").startsWith("ERROR ")) {
+            Thread.sleep(10);
+        }
+        assertThat(send("CREATE 5 5"), is("OK 2\n"));
+        assertThat(send("STEP 2 3 1000"), is("OK 3\n"));
+    }
+
+    @Test
+    public void testClosedSessionRejectsSteps() {
+        assertThat(send("CREATE 5 5"), is("OK 1\n"));
+        assertThat(send("CLOSE 1"), is("OK\n"));
+        assertThat("closed sessions are no longer owned", owned.isEmpty(), is(true));
+        assertThat(send("CLOSE 1"), is("ERROR no session 1\n"));
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // HELPER METHODS
+    ////////////////////////////////////////////////////////////////////////////
+
+    private String send(final String command) {
+        return send(command, owned);
+    }
+
+    /**
+     * Runs a command as the client which owns the given sessions.
+     */
+    private String send(final String command, final Set<Integer> sessions) {
+        final StringWriter response = new StringWriter();
+        server.handle(command, new PrintWriter(response), sessions);
+        return response.toString();
+    }
+
+}
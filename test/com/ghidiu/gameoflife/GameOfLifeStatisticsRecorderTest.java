@@ -0,0 +1,162 @@
+package com.ghidiu.gameoflife;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for the GameOfLifeStatisticsRecorder class.
+ *
+ * @author jghidiu
+ */
+public class GameOfLifeStatisticsRecorderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    @Test
+    public void testCsvEveryGeneration() throws IOException {
+        final Path path = folder.newFile("statistics.csv").toPath();
+        final GameOfLife gol = blinker();
+
+        try (GameOfLifeStatisticsRecorder recorder = new GameOfLifeStatisticsRecorder(path, GameOfLifeStatisticsRecorder.Format.CSV, 1)) {
+            record(gol, recorder, 3);
+            assertThat(recorder.getRecords(), is(3L));
+        }
+
+        // A blinker loses its ends and gains two new ones each day, flipping between 1x3 and 3x1
+        assertThat(Files.readAllLines(path, StandardCharsets.US_ASCII), is(Arrays.asList(
+                "generation,population,births,deaths,boundingBoxArea,activity",
+                "0,3,0,0,3,0.0",
+                "1,3,2,2,3,0.16",
+                "2,3,2,2,3,0.16")));
+    }
+
+    @Test
+    public void testCsvWindows() throws IOException {
+        final Path path = folder.newFile("statistics.csv").toPath();
+        final GameOfLife gol = blinker();
+
+        // Five generations in windows of two leave a partial window, which is written on close
+        try (GameOfLifeStatisticsRecorder recorder = new GameOfLifeStatisticsRecorder(path, GameOfLifeStatisticsRecorder.Format.CSV, 2)) {
+            record(gol, recorder, 5);
+            assertThat(recorder.getRecords(), is(2L));
+        }
+
+        final List<String> lines = Files.readAllLines(path, StandardCharsets.US_ASCII);
+        assertThat(lines.size(), is(4));
+        assertThat(lines.get(0), is("generation,generations,populationMin,populationMax,populationMean,birthsMin,birthsMax,birthsMean,"
+                + "deathsMin,deathsMax,deathsMean,boundingBoxAreaMin,boundingBoxAreaMax,boundingBoxAreaMean,"
+                + "activityMin,activityMax,activityMean"));
+        assertThat(lines.get(1), is("0,2,3,3,3.0,0,2,1.0,0,2,1.0,3,3,3.0,0.0,0.16,0.08"));
+        assertThat(lines.get(2), is("2,2,3,3,3.0,2,2,2.0,2,2,2.0,3,3,3.0,0.16,0.16,0.16"));
+        assertThat(lines.get(3), is("4,1,3,3,3.0,2,2,2.0,2,2,2.0,3,3,3.0,0.16,0.16,0.16"));
+    }
+
+    @Test
+    public void testBinaryWindows() throws IOException {
+        final Path path = folder.newFile("statistics.gols").toPath();
+        final GameOfLife gol = new GameOfLife(100, 100, GameOfLifeEngines.DENSE);
+        gol.addLife(10, 70);
+        gol.addLife(10, 71);
+        gol.addLife(11, 70);
+        gol.addLife(11, 71);
+
+        try (GameOfLifeStatisticsRecorder recorder = new GameOfLifeStatisticsRecorder(path, GameOfLifeStatisticsRecorder.Format.BINARY, 10)) {
+            record(gol, recorder, 20);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        final byte[] magic = new byte[4];
+        buffer.get(magic);
+        assertThat(new String(magic, StandardCharsets.US_ASCII), is("GOLS"));
+        assertThat(buffer.getInt(), is(GameOfLifeStatisticsRecorder.BINARY_VERSION));
+        assertThat(buffer.getInt(), is(10));
+        assertThat(buffer.getInt(), is(GameOfLifeStatisticsRecorder.STATISTICS.length));
+
+        // A block never changes; counts have long minimums and maximums, and float means
+        for (int window = 0; window < 2; window++) {
+            assertThat(buffer.getLong(), is(10L * window));
+            assertThat(buffer.getInt(), is(10));
+            final long[] expected = {4, 0, 0, 4};
+            for (final long value : expected) {
+                assertThat(buffer.getLong(), is(value));
+                assertThat(buffer.getLong(), is(value));
+                assertThat(buffer.getFloat(), is((float) value));
+            }
+            // The activity is a fraction throughout
+            assertThat(buffer.getFloat(), is(0f));
+            assertThat(buffer.getFloat(), is(0f));
+            assertThat(buffer.getFloat(), is(0f));
+        }
+        assertThat(buffer.remaining(), is(0));
+    }
+
+    @Test
+    public void testBinaryCountsAreExact() throws IOException {
+        final Path path = folder.newFile("statistics.gols").toPath();
+        final GameOfLife gol = blinker();
+
+        try (GameOfLifeStatisticsRecorder recorder = new GameOfLifeStatisticsRecorder(path, GameOfLifeStatisticsRecorder.Format.BINARY, 1)) {
+            record(gol, recorder, 2);
+        }
+
+        // Past the header, each generation is a long day, four long counts and a float activity
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        buffer.position(16);
+        assertThat(buffer.remaining(), is(2 * (8 + 4 * 8 + 4)));
+        buffer.position(16 + 8 + 4 * 8 + 4);
+        assertThat(buffer.getLong(), is(1L));
+        assertThat(buffer.getLong(), is(3L));
+        assertThat(buffer.getLong(), is(2L));
+        assertThat(buffer.getLong(), is(2L));
+        assertThat(buffer.getLong(), is(3L));
+        assertThat(buffer.getFloat(), is(0.16f));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowMustBePositive() throws IOException {
+        new GameOfLifeStatisticsRecorder(folder.newFile().toPath(), GameOfLifeStatisticsRecorder.Format.CSV, 0);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // HELPER METHODS
+    ////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a game with a horizontal blinker on a 5x5 board.
+     */
+    private static GameOfLife blinker() {
+        final GameOfLife gol = new GameOfLife(5, 5, GameOfLifeEngines.SPARSE);
+        gol.addLife(2, 1);
+        gol.addLife(2, 2);
+        gol.addLife(2, 3);
+        return gol;
+    }
+
+    /**
+     * Records a number of generations, starting with the current one.
+     */
+    private static void record(final GameOfLife gol, final GameOfLifeStatisticsRecorder recorder, final int generations) throws IOException {
+        for (int i = 0; i < generations; i++) {
+            if (0 != i) {
+                gol.runDay();
+            }
+            recorder.record(gol.getGeneration());
+        }
+    }
+
+}
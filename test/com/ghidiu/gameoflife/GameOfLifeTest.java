@@ -3,10 +3,15 @@ package com.ghidiu.gameoflife;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Random;
+import java.util.stream.IntStream;
+
 /**
  * Unit tests for the GameOfLife class.
  *
@@ -64,4 +69,132 @@ public class GameOfLifeTest {
         assertThat("toString() should be correct", gol.toString().trim(), is(("OO" + System.lineSeparator() + "OO").trim()));
     }
 
+    @Test
+    public void testSetHistory() {
+        // Add life and record
+        gol.addLife(1, 1);
+        final GameOfLifeHistory history = new GameOfLifeHistory(2, 2, 4, 1024);
+        gol.setHistory(history);
+        gol.runDay();
+
+        // Both generations should be recorded
+        assertThat("History size should be correct", history.size(), is(2));
+        assertThat("Day 0 should have life", history.seek(0)[1][1], is(true));
+        assertThat("Day 1 should have no life", history.seek(1)[1][1], is(false));
+    }
+
+    @Test
+    public void testSetMismatchedHistory() {
+        try {
+            gol.setHistory(new GameOfLifeHistory(3, 3, 4, 1024));
+            fail("A history of the wrong dimensions should be rejected");
+        } catch (final IllegalArgumentException e) {
+            // Expected
+        }
+
+        // The rejected history should not be kept
+        gol.runDay();
+        assertThat("Day should be correct", gol.getDay(), is(1L));
+    }
+
+    @Test
+    public void testPopulation() {
+        assertThat("Population should be zero", gol.population(), is(0L));
+
+        // Adding the same life twice counts once
+        gol.addLife(1, 1);
+        gol.addLife(1, 1);
+        gol.addLife(0, 1);
+        assertThat("Population should be correct", gol.population(), is(2L));
+        assertThat("Region population should be correct", gol.population(new GameOfLifeRegion(1, 0, 1, 2)), is(1L));
+        assertThat("Region population should be clipped", gol.population(new GameOfLifeRegion(-5, -5, 50, 50)), is(2L));
+    }
+
+    @Test
+    public void testPopulationAcrossTiles() {
+        final Random random = new Random(7);
+        gol = new GameOfLife(150, 200);
+        seed(random, gol, 150, 200);
+
+        for (int day = 0; day < 5; day++) {
+            final GameOfLifeView board = gol.viewport(new GameOfLifeRegion(0, 0, 150, 200));
+            for (int i = 0; i < 20; i++) {
+                final int row = random.nextInt(150);
+                final int column = random.nextInt(200);
+                final GameOfLifeRegion region = new GameOfLifeRegion(row, column, random.nextInt(150 - row + 1), random.nextInt(200 - column + 1));
+
+                assertThat("Region population should be correct: " + region, gol.population(region), is(count(board, region)));
+            }
+            assertThat("Population should be correct", gol.population(), is(count(board, new GameOfLifeRegion(0, 0, 150, 200))));
+
+            gol.runDay();
+        }
+    }
+
+    @Test
+    public void testBoundingBox() {
+        assertThat("No life has no bounding box", gol.boundingBox(), is(nullValue()));
+
+        gol = new GameOfLife(200, 200);
+        gol.addLife(70, 130);
+        assertThat("Bounding box should be correct", gol.boundingBox(), is(new GameOfLifeRegion(70, 130, 1, 1)));
+
+        gol.addLife(3, 190);
+        gol.addLife(150, 65);
+        assertThat("Bounding box should be correct", gol.boundingBox(), is(new GameOfLifeRegion(3, 65, 148, 126)));
+
+        // Isolated cells die
+        gol.runDay();
+        assertThat("No life has no bounding box", gol.boundingBox(), is(nullValue()));
+    }
+
+    @Test
+    public void testViewport() {
+        gol.addLife(1, 1);
+        final GameOfLifeView view = gol.viewport(new GameOfLifeRegion(1, 0, 5, 5));
+
+        assertThat("View should be clipped", view.getRows(), is(1));
+        assertThat("View should be clipped", view.getColumns(), is(2));
+        assertThat("View should be relative", view.getLife(0, 1), is(true));
+
+        // The view keeps showing the day it was taken on
+        gol.runDay();
+        assertThat("View should not change", view.getLife(0, 1), is(true));
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // HELPER METHODS
+    ////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds life to roughly a third of the cells of a game.
+     */
+    private static void seed(final Random random, final GameOfLife game, final int rows, final int columns) {
+        final IntStream.Builder cells = IntStream.builder();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (0 == random.nextInt(3)) {
+                    cells.add(row).add(column);
+                }
+            }
+        }
+        game.addLife(cells.build().toArray());
+    }
+
+    /**
+     * Counts the living cells of a region by visiting every cell.
+     */
+    private static long count(final GameOfLifeView board, final GameOfLifeRegion region) {
+        long count = 0;
+        for (int row = region.getRow(); row < region.getRow() + region.getRows(); row++) {
+            for (int column = region.getColumn(); column < region.getColumn() + region.getColumns(); column++) {
+                if (board.getLife(row, column)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
 }
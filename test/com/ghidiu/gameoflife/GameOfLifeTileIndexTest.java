@@ -0,0 +1,53 @@
+package com.ghidiu.gameoflife;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the GameOfLifeTileIndex class.
+ *
+ * @author jghidiu
+ */
+public class GameOfLifeTileIndexTest {
+
+    @Test
+    public void testSnapshotsShareUnchangedTileRows() {
+        // Four rows of tiles
+        final GameOfLifeTileIndex index = new GameOfLifeTileIndex(200, 200);
+        index.add(10, 10);
+        index.add(150, 150);
+        final GameOfLifeTileIndex first = index.snapshot();
+
+        // Only the first row of tiles changes
+        index.add(10, 100);
+        final GameOfLifeTileIndex second = index.snapshot();
+
+        assertThat("unchanged rows of tiles are shared", second.getSharedTileRowCount(first), is(3));
+        assertThat("the snapshots keep their own counts", first.getTilePopulation(0, 1), is(0));
+        assertThat(second.getTilePopulation(0, 1), is(1));
+        assertThat(second.getTilePopulation(2, 2), is(1));
+        assertThat(second.getPopulation(), is(3L));
+
+        // Counts which change and change back are shared again
+        index.clear();
+        index.add(10, 10);
+        index.add(10, 100);
+        index.add(150, 150);
+        assertThat(index.snapshot().getSharedTileRowCount(second), is(4));
+    }
+
+    @Test
+    public void testCopiesShareNothing() {
+        final GameOfLifeTileIndex index = new GameOfLifeTileIndex(200, 200);
+        index.add(10, 10);
+        final GameOfLifeTileIndex copy = new GameOfLifeTileIndex(index);
+
+        index.add(10, 11);
+        assertThat(copy.getSharedTileRowCount(index), is(0));
+        assertThat(copy.getTilePopulation(0, 0), is(1));
+        assertThat(index.getTilePopulation(0, 0), is(2));
+    }
+
+}
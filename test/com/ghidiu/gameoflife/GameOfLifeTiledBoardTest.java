@@ -0,0 +1,124 @@
+package com.ghidiu.gameoflife;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the GameOfLifeTiledBoard class (as produced by the tiled engine).
+ *
+ * @author jghidiu
+ */
+public class GameOfLifeTiledBoardTest {
+
+    // A board of 4x4 tiles
+    private final int rowCount = 256;
+    private final int columnCount = 256;
+
+    private TiledEngine engine;
+    private GameOfLifeTileIndex index;
+
+
+    @Before
+    public void beforeEach() {
+        engine = (TiledEngine) GameOfLifeEngines.create(GameOfLifeEngines.TILED, rowCount, columnCount);
+        index = new GameOfLifeTileIndex(rowCount, columnCount);
+    }
+
+    @Test
+    public void testEmptyBoardStoresNoTiles() {
+        engine.step(index);
+
+        assertThat(engine.snapshot().getStoredTileCount(), is(0));
+    }
+
+    @Test
+    public void testUnchangedTilesAreShared() {
+        // A block (still life) in one corner and a blinker in the opposite corner
+        addLife(10, 10);
+        addLife(10, 11);
+        addLife(11, 10);
+        addLife(11, 11);
+        addLife(200, 200);
+        addLife(200, 201);
+        addLife(200, 202);
+        engine.step(index);
+
+        final GameOfLifeTiledBoard yesterday = engine.snapshot();
+        engine.step(index);
+        final GameOfLifeTiledBoard today = engine.snapshot();
+
+        // Only the blinker's tile was allocated again
+        assertThat(today.getStoredTileCount(), is(2));
+        assertThat(today.getSharedTileCount(yesterday), is(1));
+        assertThat(today.getLife(10, 10), is(true));
+        assertThat(yesterday.getLife(199, 201), is(true));
+        assertThat(today.getLife(199, 201), is(false));
+        assertThat(today.getLife(200, 200), is(true));
+
+        // Only the blinker's row of tiles was allocated again; the block's row and the empty rows are shared
+        assertThat(today.getSharedTileRowCount(yesterday), is(3));
+    }
+
+    @Test
+    public void testSettledTilesKeepTheirExtent() {
+        // A block, which settles, and a blinker far enough away that its tile is computed every day
+        addLife(10, 10);
+        addLife(10, 11);
+        addLife(11, 10);
+        addLife(11, 11);
+        addLife(200, 200);
+        addLife(200, 201);
+        addLife(200, 202);
+
+        for (int day = 0; day < 4; day++) {
+            engine.step(index);
+            assertThat("day " + day, index.getExtent(), is(new GameOfLifeRegion(10, 10, 0 == day % 2 ? 192 : 191, 0 == day % 2 ? 192 : 193)));
+        }
+    }
+
+    @Test
+    public void testSnapshotIsNotChangedBySetLife() {
+        addLife(10, 10);
+        final GameOfLifeTiledBoard before = engine.snapshot();
+
+        addLife(10, 12);
+
+        assertThat(before.getLife(10, 12), is(false));
+        assertThat(before.getPopulation(), is(1L));
+        assertThat(engine.snapshot().getPopulation(), is(2L));
+    }
+
+    @Test
+    public void testGliderCrossesTiles() {
+        // A glider heading south east, across the tile boundaries at 64
+        addLife(60, 61);
+        addLife(61, 62);
+        addLife(62, 60);
+        addLife(62, 61);
+        addLife(62, 62);
+
+        boolean[][] map = GameOfLifeMapUtil.unpack(GameOfLifeMapUtil.pack(engine.snapshot()), rowCount, columnCount);
+        for (int day = 0; day < 40; day++) {
+            engine.step(index);
+            map = GameOfLifeMapUtil.runDay(map);
+
+            assertThat("day " + day, engine.render(), is(GameOfLifeMapUtil.toString(map)));
+            assertThat("day " + day, engine.snapshot().getPopulation(), is(5L));
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // HELPER METHODS
+    ////////////////////////////////////////////////////////////////////////////
+
+    private void addLife(final int row, final int column) {
+        if (engine.setLife(row, column, true)) {
+            index.add(row, column);
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.ghidiu.gameoflife;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the startup of the HeadlessGameRunner by launching it in fresh JVMs: the time from launch until the first
+ * day has been run, and until the JVM has exited. This is not a unit test; run it with
+ * <code>java -cp target/classes:target/test-classes com.ghidiu.gameoflife.HeadlessGameRunnerBenchmark [runs] [jvm options...]</code>,
+ * for example with <code>-XX:TieredStopAtLevel=1</code> or <code>-XX:SharedArchiveFile=gameoflife.jsa</code> to
+ * compare them with the defaults. The launched JVMs use the benchmark's class path, unless another is given with
+ * <code>-Dgameoflife.classpath=...</code> (class-data sharing archives only apply to jars).
+ *
+ * @author jghidiu
+ */
+public class HeadlessGameRunnerBenchmark {
+
+    // The boards which are run, as rows, columns, days and engine
+    private final static String[][] RUNS = {
+            {"16", "16", "10", GameOfLifeEngines.DENSE},
+            {"64", "64", "100", GameOfLifeEngines.DENSE},
+            {"64", "64", "100", GameOfLifeEngines.LOOKUP},
+            {"64", "64", "100", GameOfLifeEngines.MAP},
+    };
+
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the number of launches per board (default 10), then options for the launched JVMs
+     * @throws IOException if a JVM cannot be launched
+     * @throws InterruptedException if interrupted while waiting for a JVM
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final int launches = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        final List<String> options = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : new ArrayList<String>();
+        final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        System.out.println("JVM options: " + options);
+        for (final String[] run : RUNS) {
+            final List<String> command = new ArrayList<>();
+            command.add(java);
+            command.addAll(options);
+            command.add("-cp");
+            command.add(System.getProperty("gameoflife.classpath", System.getProperty("java.class.path")));
+            command.add(HeadlessGameRunner.class.getName());
+            command.addAll(Arrays.asList(run));
+
+            // One launch to warm the file system cache
+            launch(command);
+
+            final long[] firstDay = new long[launches];
+            final long[] total = new long[launches];
+            for (int i = 0; i < launches; i++) {
+                final long[] times = launch(command);
+                firstDay[i] = times[0];
+                total[i] = times[1];
+            }
+
+            System.out.printf("%-6s %3sx%-3s %4s days   first day: %s   total: %s%n", run[3], run[0], run[1], run[2],
+                    summarize(firstDay), summarize(total));
+        }
+    }
+
+    /**
+     * Launches a JVM, returning the nanoseconds until it printed its first day and until it exited.
+     */
+    private static long[] launch(final List<String> command) throws IOException, InterruptedException {
+        final long start = System.nanoTime();
+        final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        long firstDay = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); null != line; line = reader.readLine()) {
+                if (0 == firstDay && line.startsWith("first ")) {
+                    firstDay = System.nanoTime() - start;
+                }
+            }
+        }
+        if (0 != process.waitFor()) {
+            throw new IllegalStateException("Runner failed: " + command);
+        }
+        return new long[]{firstDay, System.nanoTime() - start};
+    }
+
+    private static String summarize(final long[] nanos) {
+        final long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format("min %7.1f ms  median %7.1f ms", sorted[0] / 1e6, sorted[sorted.length / 2] / 1e6);
+    }
+
+}
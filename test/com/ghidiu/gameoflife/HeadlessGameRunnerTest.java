@@ -0,0 +1,67 @@
+package com.ghidiu.gameoflife;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests for the HeadlessGameRunner class.
+ *
+ * @author jghidiu
+ */
+public class HeadlessGameRunnerTest {
+
+    @Test
+    public void testRun() {
+        final String[] lines = run(0, "32", "48", "10", GameOfLifeEngines.LOOKUP);
+
+        assertThat(lines.length, is(2));
+        assertThat(lines[0], startsWith("first day=1 population="));
+        assertThat(lines[1], startsWith("done day=10 population="));
+    }
+
+    @Test
+    public void testRunIsRepeatable() {
+        final String[] dense = run(0, "32", "48", "10", GameOfLifeEngines.DENSE, "B3/S23", "0.4", "7");
+        final String[] map = run(0, "32", "48", "10", GameOfLifeEngines.MAP, "B3/S23", "0.4", "7");
+
+        // The same soup gives the same populations, whatever the engine
+        assertThat(map[0], is(dense[0]));
+        assertThat(population(map[1]), is(population(dense[1])));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThat(run(2, "32", "48")[1], startsWith("Usage: "));
+        assertThat(run(2, "32", "48", "x")[1], startsWith("Usage: "));
+        assertThat(run(2, "32", "48", "10", GameOfLifeEngines.DENSE, "B36/S23")[1], startsWith("Usage: "));
+        assertThat(run(2, "-32", "48", "10")[0], is("'-32' must be positive"));
+        assertThat(run(2, "32", "0", "10")[0], is("'0' must be positive"));
+        assertThat(run(2, "32", "48", "-1")[0], is("'-1' must not be negative"));
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // HELPER METHODS
+    ////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Runs the runner, checking its exit status and returning its output lines.
+     */
+    private static String[] run(final int status, final String... args) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        assertThat(HeadlessGameRunner.run(args, new PrintStream(bytes, true)), is(status));
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8).split(System.lineSeparator());
+    }
+
+    private static String population(final String line) {
+        return line.split(" ")[2];
+    }
+
+}
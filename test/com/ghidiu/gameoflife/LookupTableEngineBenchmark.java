@@ -0,0 +1,86 @@
+package com.ghidiu.gameoflife;
+
+import java.util.Random;
+
+/**
+ * Compares the lookup engine with GameOfLifeMapUtil.runDay (through the map engine) and the dense engine: first for
+ * correctness on a shared soup, then for speed. This is not a unit test; run it with
+ * <code>java -cp target/classes:target/test-classes com.ghidiu.gameoflife.LookupTableEngineBenchmark [size] [days]</code>.
+ *
+ * @author jghidiu
+ */
+public class LookupTableEngineBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the board size (default 512) and the number of days to time (default 200)
+     */
+    public static void main(final String[] args) {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : 512;
+        final int days = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        final String[] engines = {GameOfLifeEngines.MAP, GameOfLifeEngines.DENSE, GameOfLifeEngines.LOOKUP};
+
+        // Correctness: every engine must agree with runDay
+        boolean[][] map = soup(size);
+        final GameOfLifeEngine[] checked = new GameOfLifeEngine[engines.length];
+        final GameOfLifeTileIndex index = new GameOfLifeTileIndex(size, size);
+        for (int i = 0; i < engines.length; i++) {
+            checked[i] = seeded(engines[i], map);
+        }
+        for (int day = 0; day < 20; day++) {
+            map = GameOfLifeMapUtil.runDay(map);
+            final String expected = GameOfLifeMapUtil.toString(map);
+            for (final GameOfLifeEngine engine : checked) {
+                engine.step(index);
+                if (!expected.equals(engine.render())) {
+                    throw new AssertionError(engine.getName() + " differs from runDay on day " + day);
+                }
+            }
+        }
+        System.out.println("All engines agree with runDay for 20 days");
+
+        // Speed: warm up, then time
+        final boolean[][] start = soup(size);
+        for (final String name : engines) {
+            final int timedDays = GameOfLifeEngines.MAP.equals(name) ? Math.max(1, days / 10) : days;
+            run(seeded(name, start), index, timedDays);
+
+            final GameOfLifeEngine engine = seeded(name, start);
+            final long startTime = System.nanoTime();
+            run(engine, index, timedDays);
+            final long elapsed = System.nanoTime() - startTime;
+
+            System.out.printf("%-8s %4dx%-4d %5d days %10.3f ms/day %8.1f Mcells/s%n", name, size, size, timedDays,
+                    elapsed / 1e6 / timedDays, (double) size * size * timedDays / (elapsed / 1e3));
+        }
+    }
+
+    private static void run(final GameOfLifeEngine engine, final GameOfLifeTileIndex index, final int days) {
+        for (int day = 0; day < days; day++) {
+            engine.step(index);
+        }
+    }
+
+    private static GameOfLifeEngine seeded(final String name, final boolean[][] map) {
+        final GameOfLifeEngine engine = GameOfLifeEngines.create(name, map.length, map[0].length);
+        for (int row = 0; row < map.length; row++) {
+            for (int column = 0; column < map[row].length; column++) {
+                engine.setLife(row, column, map[row][column]);
+            }
+        }
+        return engine;
+    }
+
+    private static boolean[][] soup(final int size) {
+        final Random random = new Random(size);
+        final boolean[][] map = GameOfLifeMapUtil.createMap(size, size, false);
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                map[row][column] = random.nextInt(3) == 0;
+            }
+        }
+        return map;
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.ghidiu.gameoflife;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Unit tests for the LookupTableEngine and GameOfLifeRule classes. Conway's rule is also covered against
+ * GameOfLifeMapUtil.runDay by GameOfLifeEnginesTest.
+ *
+ * @author jghidiu
+ */
+public class LookupTableEngineTest {
+
+    // Randomizer (seeded so that failures are reproducible)
+    private final Random random = new Random(99);
+
+
+    @Test
+    public void testParseRule() {
+        assertThat(GameOfLifeRule.parse("B3/S23"), is(GameOfLifeRule.CONWAY));
+        assertThat(GameOfLifeRule.parse("b36/s23").toString(), is("B36/S23"));
+        assertThat(GameOfLifeRule.parse("B/S").toString(), is("B/S"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidRule() {
+        GameOfLifeRule.parse("B9/S23");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherEnginesRejectOtherRules() {
+        GameOfLifeEngines.create(GameOfLifeEngines.DENSE, 3, 3, GameOfLifeRule.parse("B36/S23"));
+    }
+
+    @Test
+    public void testConwayTableMatchesRule() {
+        // A horizontal blinker in row 1, columns 0 to 2: (1, 1) survives, (2, 1) is born, (1, 2) and (2, 2) are dead
+        final byte[] table = LookupTableEngine.buildTable(GameOfLifeRule.CONWAY);
+        final int horizontal = (1 << 4) | (1 << 5) | (1 << 6);
+        assertThat((int) table[horizontal], is((1 << 0) | (1 << 2)));
+        assertThat((int) table[0], is(0));
+    }
+
+    @Test
+    public void testOtherRules() {
+        // HighLife, Seeds and Day & Night (whose cells are born with 6 to 8 neighbors)
+        for (final String rule : new String[] {"B36/S23", "B2/S", "B3678/S34678"}) {
+            for (final int[] size : new int[][] {{7, 9}, {33, 64}, {20, 130}}) {
+                assertMatchesReference(GameOfLifeRule.parse(rule), size[0], size[1], 15);
+            }
+        }
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////
+    // HELPER METHODS
+    ////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Steps the lookup engine and a cell by cell reference from the same random soup and asserts they agree.
+     */
+    private void assertMatchesReference(final GameOfLifeRule rule, final int rows, final int columns, final int days) {
+        final GameOfLifeEngine engine = GameOfLifeEngines.create(GameOfLifeEngines.LOOKUP, rows, columns, rule);
+        final GameOfLifeTileIndex index = new GameOfLifeTileIndex(rows, columns);
+        boolean[][] map = GameOfLifeMapUtil.createMap(rows, columns, false);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                map[row][column] = random.nextBoolean();
+                engine.setLife(row, column, map[row][column]);
+            }
+        }
+
+        for (int day = 0; day < days; day++) {
+            engine.step(index);
+
+            final boolean[][] next = GameOfLifeMapUtil.createMap(rows, columns, false);
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    next[row][column] = rule.isAliveNextDay(map[row][column], GameOfLifeMapUtil.getLivingNeighborCount(row, column, map));
+                }
+            }
+            map = next;
+
+            assertThat(rule + " " + rows + "x" + columns + " day " + day, engine.render(), is(GameOfLifeMapUtil.toString(map)));
+        }
+    }
+
+}